@@ -0,0 +1,67 @@
+package br.com.erudio.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of entities by id. Writers evict once their transaction has committed, and a
+ * generation counter bumped on every eviction keeps a reader that loaded the row before that commit
+ * from putting the stale value back.
+ */
+@Component
+public class EntityCaches {
+
+    private final CacheManager cacheManager;
+    private final AtomicLong generation = new AtomicLong();
+
+    // Encoded responses of the same entities, absent when the response cache is not in the context
+    @Autowired(required = false)
+    ResponseBodyCache responses;
+
+    public EntityCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public <T> T get(String cacheName, Object id, Class<T> type, Supplier<T> loader) {
+        var cache = cache(cacheName);
+        var value = cache.get(id, type);
+        if (value != null) return value;
+
+        long stamp = generation.get();
+        value = loader.get();
+        cache.put(id, value);
+        if (stamp != generation.get()) cache.evict(id);
+        return value;
+    }
+
+    public void evictAfterCommit(String cacheName, Object id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(cacheName, id);
+                }
+            });
+        } else {
+            evict(cacheName, id);
+        }
+    }
+
+    public void evict(String cacheName, Object id) {
+        generation.incrementAndGet();
+        cache(cacheName).evict(id);
+        if (responses != null) responses.invalidate(cacheName, id);
+    }
+
+    private Cache cache(String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName), () -> "No cache named " + cacheName);
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.config.HotFileCacheConfig;
+import br.com.erudio.file.download.FileSender;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contents of small stored files by name, with the media type and validators a download needs worked
+ * out once, so a hit never touches the disk. Bounded by the byte budget of HotFileCacheConfig, files
+ * above its max-file-size are never held.
+ */
+@Component
+public class HotFileCache {
+
+    public record HotFile(byte[] content, MediaType contentType, String eTag, long lastModified) {}
+
+    private final Cache<String, HotFile> cache;
+    private final boolean enabled;
+    private final long maxFileSize;
+    private final AtomicLong generation = new AtomicLong();
+
+    public HotFileCache(HotFileCacheConfig config, MeterRegistry registry) {
+        this.enabled = config.isEnabled();
+        this.maxFileSize = config.getMaxFileSize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((String name, HotFile file) -> name.length() + file.content().length)
+                .recordStats()
+                .build();
+
+        // cache.gets tagged hit and miss gives the hit ratio, the gauge saves working it out on every dashboard
+        CaffeineCacheMetrics.monitor(registry, cache, "hotFiles");
+        Gauge.builder("file.hot-cache.hit.ratio", cache, hotFiles -> hotFiles.stats().hitRate())
+                .description("Share of downloads served from the hot file cache")
+                .register(registry);
+        Gauge.builder("file.hot-cache.bytes", this, HotFileCache::bytesHeld)
+                .description("File bytes held by the hot file cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public HotFile get(String name) {
+        return enabled ? cache.getIfPresent(name) : null;
+    }
+
+    // Read before resolving the file, load() drops the content if the file was replaced in the meantime
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Reads the file into the cache when it is small enough, returning null for larger ones.
+     */
+    public HotFile load(String name, Path file, MediaType contentType, long stamp) throws IOException {
+        if (!enabled) return null;
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() > maxFileSize) return null;
+
+        byte[] content = Files.readAllBytes(file);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Replaced while being read, the disk path sends it with validators that match
+        if (content.length != attributes.size() || Files.getLastModifiedTime(file).toMillis() != lastModified) return null;
+
+        var hotFile = new HotFile(content, contentType, FileSender.eTag(content.length, lastModified), lastModified);
+
+        if (stamp == generation.get()) {
+            cache.put(name, hotFile);
+            if (stamp != generation.get()) cache.invalidate(name);
+        }
+        return hotFile;
+    }
+
+    public void invalidate(String name) {
+        generation.incrementAndGet();
+        cache.invalidate(name);
+    }
+
+    public long bytesHeld() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
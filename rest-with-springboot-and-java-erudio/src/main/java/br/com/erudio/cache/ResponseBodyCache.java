@@ -0,0 +1,84 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.config.ResponseCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fully encoded single-entity responses, grouped by entity so a write drops every media type and base
+ * URI variant of that id at once. Bounded by the byte budget of ResponseCacheConfig.
+ */
+@Component
+public class ResponseBodyCache {
+
+    public record Entry(Map<String, List<String>> headers, byte[] body) {}
+
+    private record Key(String cacheName, Object id) {}
+
+    private final Cache<Key, Map<String, Entry>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseBodyCache(ResponseCacheConfig config, MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((Key key, Map<String, Entry> variants) -> weigh(variants))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, cache, "responses");
+        Gauge.builder("response.cache.bytes", this, ResponseBodyCache::bytesHeld)
+                .description("Encoded response bytes held by the response cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public Entry get(String cacheName, Object id, String variant) {
+        var variants = cache.getIfPresent(new Key(cacheName, id));
+        return variants == null ? null : variants.get(variant);
+    }
+
+    // Read before rendering a response, put() drops the body if the entity changed in the meantime
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String cacheName, Object id, String variant, Entry entry, long stamp) {
+        if (stamp != generation.get()) return;
+
+        var key = new Key(cacheName, id);
+        cache.asMap().compute(key, (k, variants) -> {
+            Map<String, Entry> updated = variants == null ? new HashMap<>() : new HashMap<>(variants);
+            updated.put(variant, entry);
+            return Map.copyOf(updated);
+        });
+        if (stamp != generation.get()) cache.invalidate(key);
+    }
+
+    public void invalidate(String cacheName, Object id) {
+        generation.incrementAndGet();
+        cache.invalidate(new Key(cacheName, id));
+    }
+
+    public long bytesHeld() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static int weigh(Map<String, Entry> variants) {
+        long bytes = 0;
+        for (var variant : variants.entrySet()) {
+            bytes += variant.getKey().length() + variant.getValue().body().length;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
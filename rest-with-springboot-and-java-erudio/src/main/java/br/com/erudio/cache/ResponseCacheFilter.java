@@ -0,0 +1,107 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.config.CacheConfig;
+import br.com.erudio.config.ResponseCacheConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves GET /api/person/v1/{id} and /api/book/v1/{id} from ResponseBodyCache, skipping the service,
+ * the HATEOAS links and the message converters. Variants are keyed by Accept header and base URI,
+ * since the links are absolute. CORS requests always go through so their headers are computed.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern SINGLE_ENTITY = Pattern.compile("^/api/(person|book)/v1/(\\d+)$");
+
+    @Autowired
+    ResponseBodyCache responses;
+
+    @Autowired
+    ResponseCacheConfig config;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled()
+                || !HttpMethod.GET.matches(request.getMethod())
+                || request.getHeader(HttpHeaders.ORIGIN) != null
+                || !SINGLE_ENTITY.matcher(path(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Matcher matcher = SINGLE_ENTITY.matcher(path(request));
+        matcher.matches();
+        var cacheName = "person".equals(matcher.group(1)) ? CacheConfig.PEOPLE : CacheConfig.BOOKS;
+        Long id;
+        try {
+            id = Long.valueOf(matcher.group(2));
+        } catch (NumberFormatException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var variant = variant(request);
+
+        var cached = responses.get(cacheName, id, variant);
+        if (cached != null) {
+            write(cached, response);
+            return;
+        }
+
+        long stamp = responses.generation();
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+                responses.put(cacheName, id, variant, new ResponseBodyCache.Entry(headers(wrapper), wrapper.getContentAsByteArray()), stamp);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void write(ResponseBodyCache.Entry cached, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        cached.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        return Map.copyOf(headers);
+    }
+
+    private static String variant(HttpServletRequest request) {
+        var accept = request.getHeader(HttpHeaders.ACCEPT);
+        return (accept == null ? "*/*" : accept) + ' ' + ServletUriComponentsBuilder.fromContextPath(request).toUriString();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.erudio.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine backed and sized in application.yml (spring.cache), hit/miss/eviction counters
+// are published by the actuator as the cache.gets and cache.evictions metrics
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PEOPLE = "people";
+    public static final String BOOKS = "books";
+}
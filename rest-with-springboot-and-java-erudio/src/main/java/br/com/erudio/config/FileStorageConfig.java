@@ -7,8 +7,17 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "file")
 public class FileStorageConfig {
 
+    public enum StorageMode {
+        // Files are kept under their own names, a second upload with the same name replaces the first
+        PLAIN,
+        // Files are kept once per content under their SHA-256, names are mapped to them in stored_files
+        CONTENT_ADDRESSED
+    }
+
     private String uploadDir;
 
+    private StorageMode storageMode = StorageMode.PLAIN;
+
     public FileStorageConfig() {}
 
     public String getUploadDir() {
@@ -18,4 +27,12 @@ public class FileStorageConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    public void setStorageMode(StorageMode storageMode) {
+        this.storageMode = storageMode;
+    }
 }
@@ -0,0 +1,22 @@
+package br.com.erudio.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers ngram_match(column, phrase) so JPQL queries can use the MySQL FULLTEXT indexes created
+ * WITH PARSER ngram. Loaded by Hibernate through META-INF/services.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String NGRAM_MATCH = "ngram_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                NGRAM_MATCH,
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
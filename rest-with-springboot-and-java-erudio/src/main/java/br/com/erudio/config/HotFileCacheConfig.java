@@ -0,0 +1,44 @@
+package br.com.erudio.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConfigurationProperties(prefix = "file.hot-cache")
+public class HotFileCacheConfig {
+
+    private boolean enabled = true;
+
+    // Budget for the file contents held by HotFileCache
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Larger files are always sent from disk
+    private DataSize maxFileSize = DataSize.ofKilobytes(256);
+
+    public HotFileCacheConfig() {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+}
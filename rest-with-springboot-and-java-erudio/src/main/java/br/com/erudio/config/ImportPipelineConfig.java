@@ -0,0 +1,55 @@
+package br.com.erudio.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "file.import-pipeline")
+public class ImportPipelineConfig {
+
+    // Threads validating and mapping rows, mapping is CPU bound so it follows the cores
+    private int mappers = Runtime.getRuntime().availableProcessors();
+
+    // Threads writing chunks, each holds a connection while it writes
+    private int writers = 2;
+
+    // Batches each queue between two stages can hold before the stage feeding it blocks
+    private int queueCapacity = 16;
+
+    // Rows handed from one stage to the next at a time
+    private int handoffSize = 200;
+
+    public ImportPipelineConfig() {}
+
+    public int getMappers() {
+        return mappers;
+    }
+
+    public void setMappers(int mappers) {
+        this.mappers = mappers;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getHandoffSize() {
+        return handoffSize;
+    }
+
+    public void setHandoffSize(int handoffSize) {
+        this.handoffSize = handoffSize;
+    }
+}
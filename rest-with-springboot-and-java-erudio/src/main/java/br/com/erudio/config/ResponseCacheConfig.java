@@ -0,0 +1,33 @@
+package br.com.erudio.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheConfig {
+
+    private boolean enabled = true;
+
+    // Budget for the encoded bodies held by ResponseBodyCache
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    public ResponseCacheConfig() {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
@@ -37,6 +37,18 @@ public class BookController implements BookControllerDocs {
         return ResponseEntity.ok(service.findAll(pegeable));
     };
 
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<PagedModel<EntityModel<BookDTO>>> findAllByCursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(service.findAllByCursor(after, size, sortDirection));
+    };
+
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
 
     @Override
@@ -1,23 +1,40 @@
 package br.com.erudio.controllers;
 
 import br.com.erudio.controllers.docs.FileControllerDocs;
+import br.com.erudio.data.dto.v1.StoredFileDTO;
 import br.com.erudio.data.dto.v1.UploadFileResponseDTO;
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.file.download.FileSender;
+import br.com.erudio.file.download.ZipSender;
+import br.com.erudio.file.upload.BatchUploads;
+import br.com.erudio.file.upload.MultipartStreams;
 import br.com.erudio.services.FileStorageService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @RequestMapping("/api/file/v1")
@@ -28,44 +45,99 @@ public class FileController implements FileControllerDocs {
     @Autowired
     private FileStorageService service;
 
+    @Autowired
+    private MultipartStreams multipart;
+
+    @Autowired
+    private FileSender fileSender;
+
+    @Autowired
+    private BatchUploads batchUploads;
+
+    @Autowired
+    private ZipSender zipSender;
+
     @PostMapping("/uploadFile")
     @Override
     public UploadFileResponseDTO uploadFile(@RequestParam("file") MultipartFile file) {
-        var fileName = service.storeFile(file);
-        var fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/api/file/v1/downloadFile/")
-                .path(fileName)
-                .toUriString();
-        return new UploadFileResponseDTO(fileName, fileDownloadUri, file.getContentType(), file.getSize());
+        return store(file, downloadBaseUri());
+    }
+
+    @PostMapping("/uploadFileStream")
+    @Override
+    public UploadFileResponseDTO uploadFileStream(HttpServletRequest request) throws Exception {
+        // The part goes from the socket to the storage directory, the only disk write of the upload
+        return multipart.readFile(request, "file", (fileName, contentType, content) -> {
+            var size = new AtomicLong();
+            var storedName = service.storeFile(fileName, contentType, out -> size.set(content.transferTo(out)));
+            var fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/file/v1/downloadFile/")
+                    .path(storedName)
+                    .toUriString();
+            return new UploadFileResponseDTO(storedName, fileDownloadUri, contentType, size.get());
+        });
     }
 
     @PostMapping("/uploadMultipleFiles")
     @Override
-    public List<UploadFileResponseDTO> uploadMultipleFiles(@RequestParam("files") MultipartFile[] files) {
-        return Arrays.asList(files)
-                .stream()
-                .map(file ->uploadFile(file))
-                .collect(Collectors.toList());
+    public List<UploadFileResponseDTO> uploadMultipleFiles(@RequestParam("files") MultipartFile[] files) throws InterruptedException {
+        // The request context is bound to this thread, the workers only get the uri it resolves to
+        var downloadBaseUri = downloadBaseUri();
+        return batchUploads.storeAll(Arrays.asList(files), file -> store(file, downloadBaseUri), (file, e) -> {
+            logger.error("Could not store " + file.getOriginalFilename() + " of a batch upload", e);
+            var response = new UploadFileResponseDTO(file.getOriginalFilename(), null, file.getContentType(), file.getSize());
+            response.setError(e.getMessage());
+            return response;
+        });
+    }
+
+    @GetMapping(value = "/files", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<PagedModel<EntityModel<StoredFileDTO>>> listFiles(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "name"));
+        return ResponseEntity.ok(service.listFiles(pageable));
     }
 
     @GetMapping("/downloadFile/{fileName:.+}")
     @Override
-    public ResponseEntity<Resource> downloadFile(@PathVariable String fileName, HttpServletRequest request) {
-        Resource resource = service.loadFileAsResource(fileName);
-        String contentType = null;
-        try {
-            contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-        } catch (Exception e) {
-            logger.error("Could Not Determine file type!");
+    public void downloadFile(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // In content addressed mode the path is named after the hash, the download keeps the name asked for
+        var downloadName = StringUtils.getFilename(fileName);
+        var download = service.loadDownload(fileName);
+        if (download.hotFile() != null) {
+            fileSender.send(download.hotFile(), downloadName, request, response);
+            return;
         }
+        fileSender.send(download.file(), download.contentType(), downloadName, request, response);
+    }
+
+    @GetMapping("/downloadZip")
+    @Override
+    public void downloadZip(@RequestParam("fileNames") List<String> fileNames, HttpServletResponse response) throws IOException {
+        if (fileNames.isEmpty()) throw new BadRequestException("Please set the Files to Download!");
 
-        if (contentType == null) {
-            contentType = "application/octet-stream";
+        // Every name is resolved before the first byte goes out, a missing file is still a clean 404
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            if (!files.containsKey(fileName)) files.put(fileName, service.loadFilePath(fileName));
         }
+        zipSender.send(files, "files.zip", response);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    private UploadFileResponseDTO store(MultipartFile file, String downloadBaseUri) {
+        var fileName = service.storeFile(file);
+        var fileDownloadUri = downloadBaseUri + UriUtils.encodePath(fileName, StandardCharsets.UTF_8);
+        return new UploadFileResponseDTO(fileName, fileDownloadUri, file.getContentType(), file.getSize());
+    }
+
+    private static String downloadBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .toUriString();
     }
 }
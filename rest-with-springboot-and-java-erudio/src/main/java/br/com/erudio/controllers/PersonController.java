@@ -1,24 +1,33 @@
 package br.com.erudio.controllers;
 
 import br.com.erudio.controllers.docs.PersonControllerDocs;
+import br.com.erudio.data.dto.v1.ExportJobDTO;
+import br.com.erudio.data.dto.v1.ImportJobDTO;
+import br.com.erudio.data.dto.v1.ImportSummaryDTO;
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.file.importer.ImportMode;
+import br.com.erudio.file.upload.MultipartStreams;
+import br.com.erudio.services.PersonExportJobServices;
+import br.com.erudio.services.PersonImportJobServices;
 import br.com.erudio.services.PersonServices;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -28,9 +37,20 @@ import java.util.List;
 @Tag(name = "People", description = "Endpoints for Managing People")
 public class PersonController implements PersonControllerDocs {
 
+    public static final String ESTIMATED_TOTAL_HEADER = "X-Estimated-Total-Count";
+
     @Autowired
     private PersonServices service;
 
+    @Autowired
+    private PersonExportJobServices exportJobs;
+
+    @Autowired
+    private PersonImportJobServices importJobs;
+
+    @Autowired
+    private MultipartStreams multipart;
+
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
 
     @Override
@@ -45,10 +65,42 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok(service.findAll(pegeable));
     }
 
+    @GetMapping(value = "/slice", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> findAllSlice(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "estimateTotal", defaultValue = "false") Boolean estimateTotal
+    ) {
+
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        Pageable pegeable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        var response = ResponseEntity.ok();
+        if (estimateTotal) {
+            response.header(ESTIMATED_TOTAL_HEADER, String.valueOf(service.estimatedPeopleCount()));
+        }
+        return response.body(service.findAllSlice(pegeable, estimateTotal));
+    }
+
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<PagedModel<EntityModel<PersonDTO>>> findAllByCursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        return ResponseEntity.ok(service.findAllByCursor(after, size, sortDirection));
+    }
+
     @GetMapping(value = "/exportPage", produces = {MediaTypes.APPLICATION_XLSX_VALUE, MediaTypes.APPLICATION_CSV_VALUE})
 
     @Override
-    public ResponseEntity<Resource> exportPage(
+    public ResponseEntity<StreamingResponseBody> exportPage(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
@@ -60,7 +112,8 @@ public class PersonController implements PersonControllerDocs {
 
         String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
 
-        Resource file = service.exportPage(pegeable, acceptHeader);
+        // Rows are written to the response as they come off the database
+        StreamingResponseBody file = service.exportPage(pegeable, acceptHeader);
 
         var contentType = acceptHeader != null ? acceptHeader : "application/octet-stream";
         var fileExtention = MediaTypes.APPLICATION_XLSX_VALUE.equalsIgnoreCase(acceptHeader) ? ".xlsx" : ".csv";
@@ -72,6 +125,62 @@ public class PersonController implements PersonControllerDocs {
                 .body(file);
     }
 
+    @GetMapping(value = "/exportAll", produces = {MediaTypes.APPLICATION_XLSX_VALUE, MediaTypes.APPLICATION_CSV_VALUE})
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(value = "firstName", required = false) String firstName,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            HttpServletRequest request
+    ) {
+
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+
+        StreamingResponseBody file = service.exportAll(firstName, Sort.by(sortDirection, "firstName"), acceptHeader);
+
+        var contentType = acceptHeader != null ? acceptHeader : "application/octet-stream";
+        var fileExtention = MediaTypes.APPLICATION_XLSX_VALUE.equalsIgnoreCase(acceptHeader) ? ".xlsx" : ".csv";
+        var fileName = "people_exported_all" + fileExtention;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"" + fileName + "\"")
+                .body(file);
+    }
+
+    @PostMapping(value = "/exportJobs", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<ExportJobDTO> createExportJob(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "firstName", required = false) String firstName,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        var job = exportJobs.create(format, firstName, Sort.by(sortDirection, "firstName"));
+        var location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping(value = "/exportJobs/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ExportJobDTO findExportJob(@PathVariable("id") String id) {
+
+        return exportJobs.findById(id);
+    };
+
+    @DeleteMapping(value = "/exportJobs/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ExportJobDTO cancelExportJob(@PathVariable("id") String id) {
+
+        return exportJobs.cancel(id);
+    };
+
     @GetMapping(value = "/findPeopleByName/{firstName}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
 
     @Override
@@ -87,6 +196,21 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok(service.findByName(firstName, pegeable));
     };
 
+    @GetMapping(value = "/findPeopleByName/{firstName}/slice", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> findByNameSlice(
+            @PathVariable("firstName") String firstName,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        Pageable pegeable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.findByNameSlice(firstName, pegeable));
+    };
+
     //@CrossOrigin(origins = "http://localhost:8080")
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
 
@@ -117,6 +241,61 @@ public class PersonController implements PersonControllerDocs {
         return service.massCreation(file);
     };
 
+    @PostMapping(value = "/massImport",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ImportSummaryDTO massImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "insert") String mode
+    ) {
+
+        return service.massImport(file, ImportMode.from(mode));
+    };
+
+    @PostMapping(value = "/massImportStream",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ImportSummaryDTO massImportStream(HttpServletRequest request) throws Exception {
+
+        // Read from the query string, asking the request for a parameter would make it parse the whole body
+        var mode = ServletUriComponentsBuilder.fromRequest(request).build().getQueryParams().getFirst("mode");
+        var importMode = ImportMode.from(mode == null ? "insert" : mode);
+        return multipart.readFile(request, "file",
+                (fileName, contentType, content) -> service.massImport(fileName, content, importMode));
+    };
+
+    @PostMapping(value = "/importJobs",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ResponseEntity<ImportJobDTO> createImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "insert") String mode
+    ) {
+
+        var job = importJobs.create(file, ImportMode.from(mode));
+        var location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping(value = "/importJobs/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ImportJobDTO findImportJob(@PathVariable("id") String id) {
+
+        return importJobs.findById(id);
+    };
+
+    @DeleteMapping(value = "/importJobs/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+
+    @Override
+    public ImportJobDTO cancelImportJob(@PathVariable("id") String id) {
+
+        return importJobs.cancel(id);
+    };
+
 //    @PostMapping(value = "/v2",
 //            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE},
 //            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
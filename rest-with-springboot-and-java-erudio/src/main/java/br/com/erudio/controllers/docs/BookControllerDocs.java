@@ -44,6 +44,31 @@ public interface BookControllerDocs {
     );
 
 
+    @Operation(summary = "Find All Book by Cursor",
+            description = "Find All Book using keyset pagination. Follow the next link, or send its after token, to fetch the next page",
+            tags = {"Book"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = BookDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<PagedModel<EntityModel<BookDTO>>> findAllByCursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
     @Operation(summary = "Find a Book",
             description = "Find a specific book by your ID",
             tags = {"Book"},
@@ -1,20 +1,27 @@
 package br.com.erudio.controllers.docs;
 
+import br.com.erudio.data.dto.v1.StoredFileDTO;
 import br.com.erudio.data.dto.v1.UploadFileResponseDTO;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(name = "File Endpoint")
 public interface FileControllerDocs {
 
     UploadFileResponseDTO uploadFile(MultipartFile file);
-    List<UploadFileResponseDTO> uploadMultipleFiles(MultipartFile[] files);
-    ResponseEntity<Resource> downloadFile(String fileName, HttpServletRequest request);
+    UploadFileResponseDTO uploadFileStream(HttpServletRequest request) throws Exception;
+    List<UploadFileResponseDTO> uploadMultipleFiles(MultipartFile[] files) throws InterruptedException;
+    ResponseEntity<PagedModel<EntityModel<StoredFileDTO>>> listFiles(Integer page, Integer size, String direction);
+    void downloadFile(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException;
+    void downloadZip(List<String> fileNames, HttpServletResponse response) throws IOException;
 
 
 }
@@ -1,5 +1,8 @@
 package br.com.erudio.controllers.docs;
 
+import br.com.erudio.data.dto.v1.ExportJobDTO;
+import br.com.erudio.data.dto.v1.ImportJobDTO;
+import br.com.erudio.data.dto.v1.ImportSummaryDTO;
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.file.exporter.MediaTypes;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,14 +11,15 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -46,6 +50,57 @@ public interface PersonControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Find a Slice of People",
+            description = "Find People without counting the whole table, the next link tells if there are more. With estimateTotal the X-Estimated-Total-Count header carries a cached total",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> findAllSlice(
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "estimateTotal", defaultValue = "false") Boolean estimateTotal
+    );
+
+    @Operation(summary = "Find All People by Cursor",
+            description = "Find All People using keyset pagination. Follow the next link, or send its after token, to fetch the next page",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<PagedModel<EntityModel<PersonDTO>>> findAllByCursor(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
     @Operation(summary = "Export People",
             description = "Export a page of People in XLSX or CSV format",
             tags = {"People"},
@@ -63,13 +118,81 @@ public interface PersonControllerDocs {
                     @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             })
-    ResponseEntity<Resource> exportPage(
+    ResponseEntity<StreamingResponseBody> exportPage(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
             HttpServletRequest request
     );
 
+    @Operation(summary = "Export all People",
+            description = "Streams every Person, optionally filtered by First Name, in XLSX or CSV format",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_CSV_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(value = "firstName", required = false) String firstName,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            HttpServletRequest request
+    );
+
+    @Operation(summary = "Create a People export job",
+            description = "Starts exporting every Person, optionally filtered by First Name, to a CSV or XLSX file in the background",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Accepted",
+                            responseCode = "202",
+                            content = @Content(schema = @Schema(implementation = ExportJobDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<ExportJobDTO> createExportJob(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "firstName", required = false) String firstName,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
+    @Operation(summary = "Find a People export job",
+            description = "Reports the status and progress of an export job, and the download URI once it is completed",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ExportJobDTO.class))),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ExportJobDTO findExportJob(@PathVariable("id") String id);
+
+    @Operation(summary = "Cancel a People export job",
+            description = "Cancels a queued or running export job, the partial file is discarded",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ExportJobDTO.class))),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ExportJobDTO cancelExportJob(@PathVariable("id") String id);
+
 
     @Operation(summary = "Massive People Creation",
             description = "Massive People Creation with upload of XLZX or CSV",
@@ -89,6 +212,80 @@ public interface PersonControllerDocs {
             })
     List<PersonDTO> massCreation(MultipartFile file);
 
+    @Operation(summary = "Massive People Import",
+            description = "Streams an XLSX or CSV upload into the database in chunks, each committed in its own transaction, and returns a summary instead of the created people. With mode=upsert rows matching an existing person on the natural key update it instead of creating a duplicate",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(schema = @Schema(implementation = ImportSummaryDTO.class))
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ImportSummaryDTO massImport(MultipartFile file, String mode);
+
+    @Operation(summary = "Massive People Import from a streamed upload",
+            description = "Like massImport, but the multipart body is parsed while it arrives and the file part feeds the importer directly, without being spooled to a temp file. Send the file in a multipart/form-data field named file, the mode goes in the query string",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ImportSummaryDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Payload Too Large", responseCode = "413", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ImportSummaryDTO massImportStream(HttpServletRequest request) throws Exception;
+
+    @Operation(summary = "Create a People import job",
+            description = "Accepts an XLSX or CSV upload and imports it in the background, rows are parsed, validated, mapped and inserted in batches, or upserted on the natural key with mode=upsert; returns the job to poll",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Accepted",
+                            responseCode = "202",
+                            content = @Content(schema = @Schema(implementation = ImportJobDTO.class))),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<ImportJobDTO> createImportJob(MultipartFile file, String mode);
+
+    @Operation(summary = "Find a People import job",
+            description = "Reports the status of an import job with its processed, imported and rejected rows, its rows per second and the busy and waiting time of each pipeline stage",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ImportJobDTO.class))),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ImportJobDTO findImportJob(@PathVariable("id") String id);
+
+    @Operation(summary = "Cancel a People import job",
+            description = "Cancels a queued or running import job, the chunks already committed are kept",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = @Content(schema = @Schema(implementation = ImportJobDTO.class))),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ImportJobDTO cancelImportJob(@PathVariable("id") String id);
+
     @Operation(summary = "Find People by First Name",
             description = "Finds People by their First Names",
             tags = {"People"},
@@ -116,6 +313,32 @@ public interface PersonControllerDocs {
     );
 
 
+    @Operation(summary = "Find a Slice of People by First Name",
+            description = "Finds People by their First Names without counting the matches, the next link tells if there are more",
+            tags = {"People"},
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorazed", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "No Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
+            })
+    ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> findByNameSlice(
+            @PathVariable("firstName") String firstName,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
     @Operation(summary = "Find a Person",
             description = "Find a specific person by your ID",
             tags = {"People"},
@@ -19,6 +19,15 @@ public class BookDTO extends RepresentationModel<BookDTO> implements Serializabl
 
     public BookDTO() {}
 
+    // Used by the JPQL constructor expressions of BookRepository's read-only list queries
+    public BookDTO(long id, String author, Date launchDate, Double price, String title) {
+        this.id = id;
+        this.author = author;
+        this.launchDate = launchDate;
+        this.price = price;
+        this.title = title;
+    }
+
     public long getId() {
         return id;
     }
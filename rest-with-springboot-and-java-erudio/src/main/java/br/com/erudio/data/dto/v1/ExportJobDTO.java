@@ -0,0 +1,106 @@
+package br.com.erudio.data.dto.v1;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+public class ExportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String status;
+    private String format;
+    private Long processedRows;
+    private String fileName;
+    private String fileDownloadUri;
+    private String error;
+    private Date createdAt;
+    private Date finishedAt;
+
+    public ExportJobDTO() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileDownloadUri() {
+        return fileDownloadUri;
+    }
+
+    public void setFileDownloadUri(String fileDownloadUri) {
+        this.fileDownloadUri = fileDownloadUri;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ExportJobDTO that = (ExportJobDTO) o;
+        return Objects.equals(id, that.id) && Objects.equals(status, that.status) && Objects.equals(format, that.format) && Objects.equals(processedRows, that.processedRows) && Objects.equals(fileName, that.fileName) && Objects.equals(fileDownloadUri, that.fileDownloadUri) && Objects.equals(error, that.error) && Objects.equals(createdAt, that.createdAt) && Objects.equals(finishedAt, that.finishedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, status, format, processedRows, fileName, fileDownloadUri, error, createdAt, finishedAt);
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.erudio.data.dto.v1;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+public class ImportJobDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String status;
+    private String fileName;
+    private String mode;
+    private Long processedRows;
+    private Long importedRows;
+    private Long updatedRows;
+    private Long errorRows;
+    private Double rowsPerSecond;
+    private List<ImportStageDTO> stages;
+    private String error;
+    private Date createdAt;
+    private Date finishedAt;
+
+    public ImportJobDTO() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public Long getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Long processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public Long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(Long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public Long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public void setUpdatedRows(Long updatedRows) {
+        this.updatedRows = updatedRows;
+    }
+
+    public Long getErrorRows() {
+        return errorRows;
+    }
+
+    public void setErrorRows(Long errorRows) {
+        this.errorRows = errorRows;
+    }
+
+    public Double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<ImportStageDTO> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<ImportStageDTO> stages) {
+        this.stages = stages;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportJobDTO that = (ImportJobDTO) o;
+        return Objects.equals(id, that.id) && Objects.equals(status, that.status) && Objects.equals(fileName, that.fileName) && Objects.equals(mode, that.mode) && Objects.equals(processedRows, that.processedRows) && Objects.equals(importedRows, that.importedRows) && Objects.equals(updatedRows, that.updatedRows) && Objects.equals(errorRows, that.errorRows) && Objects.equals(rowsPerSecond, that.rowsPerSecond) && Objects.equals(stages, that.stages) && Objects.equals(error, that.error) && Objects.equals(createdAt, that.createdAt) && Objects.equals(finishedAt, that.finishedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, status, fileName, mode, processedRows, importedRows, updatedRows, errorRows, rowsPerSecond, stages, error, createdAt, finishedAt);
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.erudio.data.dto.v1;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ImportStageDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+    private Integer threads;
+    private Long rows;
+    private Long busyMillis;
+    private Long waitingForInputMillis;
+    private Long blockedOnOutputMillis;
+
+    public ImportStageDTO() {}
+
+    public ImportStageDTO(String name, Integer threads, Long rows, Long busyMillis, Long waitingForInputMillis, Long blockedOnOutputMillis) {
+        this.name = name;
+        this.threads = threads;
+        this.rows = rows;
+        this.busyMillis = busyMillis;
+        this.waitingForInputMillis = waitingForInputMillis;
+        this.blockedOnOutputMillis = blockedOnOutputMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public Long getBusyMillis() {
+        return busyMillis;
+    }
+
+    public void setBusyMillis(Long busyMillis) {
+        this.busyMillis = busyMillis;
+    }
+
+    public Long getWaitingForInputMillis() {
+        return waitingForInputMillis;
+    }
+
+    public void setWaitingForInputMillis(Long waitingForInputMillis) {
+        this.waitingForInputMillis = waitingForInputMillis;
+    }
+
+    public Long getBlockedOnOutputMillis() {
+        return blockedOnOutputMillis;
+    }
+
+    public void setBlockedOnOutputMillis(Long blockedOnOutputMillis) {
+        this.blockedOnOutputMillis = blockedOnOutputMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportStageDTO that = (ImportStageDTO) o;
+        return Objects.equals(name, that.name) && Objects.equals(threads, that.threads) && Objects.equals(rows, that.rows) && Objects.equals(busyMillis, that.busyMillis) && Objects.equals(waitingForInputMillis, that.waitingForInputMillis) && Objects.equals(blockedOnOutputMillis, that.blockedOnOutputMillis);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, threads, rows, busyMillis, waitingForInputMillis, blockedOnOutputMillis);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.erudio.data.dto.v1;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ImportSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String fileName;
+    private Long importedRows;
+    private Long updatedRows;
+    private Integer chunks;
+    private Long elapsedMillis;
+
+    public ImportSummaryDTO() {}
+
+    public ImportSummaryDTO(String fileName, Long importedRows, Integer chunks, Long elapsedMillis) {
+        this.fileName = fileName;
+        this.importedRows = importedRows;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(Long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public Long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public void setUpdatedRows(Long updatedRows) {
+        this.updatedRows = updatedRows;
+    }
+
+    public Integer getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(Integer chunks) {
+        this.chunks = chunks;
+    }
+
+    public Long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(Long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportSummaryDTO that = (ImportSummaryDTO) o;
+        return Objects.equals(fileName, that.fileName) && Objects.equals(importedRows, that.importedRows) && Objects.equals(updatedRows, that.updatedRows) && Objects.equals(chunks, that.chunks) && Objects.equals(elapsedMillis, that.elapsedMillis);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, importedRows, updatedRows, chunks, elapsedMillis);
+    }
+}
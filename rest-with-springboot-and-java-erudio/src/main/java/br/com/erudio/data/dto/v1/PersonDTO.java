@@ -27,6 +27,16 @@ public class PersonDTO extends RepresentationModel<PersonDTO> implements Seriali
 
     }
 
+    // Used by the JPQL constructor expressions of PersonRepository's read-only list queries
+    public PersonDTO(long id, String firstName, String lastName, String address, String gender, Boolean enabled) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.address = address;
+        this.gender = gender;
+        this.enabled = enabled;
+    }
+
     public String getGender() {
         return gender;
     }
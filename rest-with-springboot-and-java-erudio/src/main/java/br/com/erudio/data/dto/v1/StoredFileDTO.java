@@ -0,0 +1,83 @@
+package br.com.erudio.data.dto.v1;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+@Relation(collectionRelation = "files")
+public class StoredFileDTO extends RepresentationModel<StoredFileDTO> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String fileName;
+    private Long fileSize;
+    private String fileType;
+    private String sha256;
+    private Date storedAt;
+
+    public StoredFileDTO() {}
+
+    // Used by the JPQL constructor expression of StoredFileRepository.findFiles
+    public StoredFileDTO(String fileName, Long fileSize, String fileType, String sha256, Date storedAt) {
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.fileType = fileType;
+        this.sha256 = sha256;
+        this.storedAt = storedAt;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Date getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Date storedAt) {
+        this.storedAt = storedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        StoredFileDTO that = (StoredFileDTO) o;
+        return Objects.equals(fileName, that.fileName) && Objects.equals(fileSize, that.fileSize) && Objects.equals(fileType, that.fileType) && Objects.equals(sha256, that.sha256) && Objects.equals(storedAt, that.storedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileName, fileSize, fileType, sha256, storedAt);
+    }
+}
@@ -11,6 +11,8 @@ public class UploadFileResponseDTO implements Serializable {
     private String fileDownloadUri;
     private String fileType;
     private Long fileSize;
+    // Set instead of the download uri when this file of a batch upload failed
+    private String error;
 
     public UploadFileResponseDTO() {}
 
@@ -53,15 +55,23 @@ public class UploadFileResponseDTO implements Serializable {
         this.fileSize = fileSize;
     }
 
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         UploadFileResponseDTO that = (UploadFileResponseDTO) o;
-        return Objects.equals(fileName, that.fileName) && Objects.equals(fileDownloadUri, that.fileDownloadUri) && Objects.equals(fileType, that.fileType) && Objects.equals(fileSize, that.fileSize);
+        return Objects.equals(fileName, that.fileName) && Objects.equals(fileDownloadUri, that.fileDownloadUri) && Objects.equals(fileType, that.fileType) && Objects.equals(fileSize, that.fileSize) && Objects.equals(error, that.error);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fileName, fileDownloadUri, fileType, fileSize);
+        return Objects.hash(fileName, fileDownloadUri, fileType, fileSize, error);
     }
 }
@@ -0,0 +1,12 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyJobsException extends RuntimeException {
+
+    public TooManyJobsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.erudio.file.download;
+
+import br.com.erudio.cache.HotFileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends a stored file with conditional and Range support. Validators come from the file metadata, so a
+ * 304 or a resumed download never reads the file. A full file or single range is handed to Tomcat's
+ * sendfile, which writes it with FileChannel.transferTo without copying through the heap; multi-range
+ * responses and other containers fall back to transferTo over the response stream. Cached copies of small
+ * files go through the same validators and ranges, written from memory.
+ */
+@Component
+public class FileSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this a plain write is cheaper than handing the file over to the poller, as in Tomcat's DefaultServlet
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private record Range(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    // Where the bytes of a download come from, a stored file or a cached copy of one
+    private interface Body {
+        // Null when the content is not a file on disk, sendfile needs one
+        Path file();
+
+        void transfer(Range range, OutputStream out) throws IOException;
+    }
+
+    public void send(Path file, MediaType contentType, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        var body = new Body() {
+            @Override
+            public Path file() {
+                return file;
+            }
+
+            @Override
+            public void transfer(Range range, OutputStream out) throws IOException {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    FileSender.transfer(channel, range, Channels.newChannel(out));
+                }
+            }
+        };
+        send(body, length, lastModified, eTag(length, lastModified), contentType, downloadName, request, response);
+    }
+
+    /**
+     * Sends a cached copy of a stored file, with the same validators and Range handling as the file itself.
+     */
+    public void send(HotFileCache.HotFile hotFile, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] content = hotFile.content();
+        var body = new Body() {
+            @Override
+            public Path file() {
+                return null;
+            }
+
+            @Override
+            public void transfer(Range range, OutputStream out) throws IOException {
+                out.write(content, (int) range.start(), (int) range.length());
+            }
+        };
+        send(body, content.length, hotFile.lastModified(), hotFile.eTag(), hotFile.contentType(), downloadName, request, response);
+    }
+
+    // Strong, from the metadata only, so a cached copy and the file on disk always agree on it
+    public static String eTag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private void send(Body body, long length, long lastModified, String eTag, MediaType contentType, String downloadName,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Sets ETag and Last-Modified, and answers 304 or 412 from the conditional headers
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) return;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; fileName=\"" + downloadName + "\"");
+
+        List<Range> ranges;
+        try {
+            ranges = ranges(request, eTag, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+
+        boolean head = "HEAD".equals(request.getMethod());
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            if (!head) write(body, new Range(0, length - 1), request, response);
+        } else if (ranges.size() == 1) {
+            Range range = ranges.get(0);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, length));
+            response.setContentLengthLong(range.length());
+            if (!head) write(body, range, request, response);
+        } else {
+            String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType("multipart/byteranges; boundary=" + boundary);
+            if (!head) writeParts(body, ranges, boundary, contentType, length, response);
+        }
+    }
+
+    // An empty list means the whole file: no Range header, or an If-Range that no longer matches
+    private static List<Range> ranges(HttpServletRequest request, String eTag, long lastModified, long length) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request, eTag, lastModified)) return List.of();
+
+        List<Range> ranges = new ArrayList<>();
+        long total = 0;
+        for (HttpRange range : HttpRange.parseRanges(header)) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            if (start >= length || start > end) throw new IllegalArgumentException("Range not satisfiable: " + header);
+            ranges.add(new Range(start, end));
+            total += end - start + 1;
+        }
+        // Overlapping ranges such as 0-,0-,0- would send the file many times over, as HttpRange.toResourceRegions
+        if (ranges.size() > 1 && total > length) throw new IllegalArgumentException("Ranges exceed the file length: " + header);
+        return ranges;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        // Only a strong entity tag or an exact date can validate a range
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(eTag);
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void write(Body body, Range range, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (body.file() != null && range.length() >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file once the request returns, the end position is exclusive
+            request.setAttribute(SENDFILE_FILENAME, body.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        body.transfer(range, out);
+        out.flush();
+    }
+
+    private static void writeParts(Body body, List<Range> ranges, String boundary, MediaType contentType,
+                                   long length, HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        for (Range range : ranges) {
+            out.write(("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            body.transfer(range, out);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void transfer(FileChannel channel, Range range, WritableByteChannel target) throws IOException {
+        long position = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, target);
+            // transferTo returns 0 at the end of the file, it was truncated while being sent
+            if (sent <= 0) throw new EOFException("File ended before the requested range");
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    private static String contentRange(Range range, long length) {
+        return "bytes " + range.start() + "-" + range.end() + "/" + length;
+    }
+}
@@ -1,12 +1,21 @@
 package br.com.erudio.file.exporter.contract;
 
 import br.com.erudio.data.dto.v1.PersonDTO;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 
-import java.io.InputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface FileExporter {
 
-    Resource exportFile(List<PersonDTO> people) throws Exception;
+    // Writes each person as soon as the iterable hands it over, the output stream is left open
+    void exportFile(Iterable<PersonDTO> people, OutputStream outputStream) throws Exception;
+
+    default Resource exportFile(List<PersonDTO> people) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        exportFile(people, outputStream);
+        return new ByteArrayResource(outputStream.toByteArray());
+    }
 }
@@ -2,52 +2,108 @@ package br.com.erudio.file.exporter.impl;
 
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.file.exporter.contract.FileExporter;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
 public class XlsxExporter implements FileExporter {
-    @Override
-    public Resource exportFile(List<PersonDTO> people) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook()){
-            Sheet sheet = workbook.createSheet("People");
 
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
+    private static final String[] HEADERS = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
+
+    // Excel caps a column at 255 characters, widths are in 1/256 of a character
+    private static final int MAX_COLUMN_CHARS = 255;
+
+    // Rows kept in memory, older rows are flushed to a temp file
+    @Value("${file.xlsx-export.row-window:100}")
+    private int rowWindow = 100;
+
+    // Rows used to estimate column widths, autoSizeColumn would need every row in memory
+    @Value("${file.xlsx-export.width-sample-rows:500}")
+    private int widthSampleRows = 500;
 
-            for(int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
+    // Excel's limit, header included; longer exports continue on "People 2", "People 3"...
+    private int maxRowsPerSheet = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    @Override
+    public void exportFile(Iterable<PersonDTO> people, OutputStream outputStream) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            CellStyle headerStyle = createHeaderCellStyle(workbook);
+            int[] widths = new int[HEADERS.length];
+            for (int i = 0; i < HEADERS.length; i++) {
+                widths[i] = HEADERS[i].length();
             }
 
+            List<Sheet> sheets = new ArrayList<>();
+            Sheet sheet = createSheet(workbook, sheets, headerStyle);
+
             int rowIndex = 1;
+            long exported = 0;
             for (PersonDTO person : people) {
-                Row row = sheet.createRow(rowIndex++);
+                String[] values = {
+                        person.getFirstName(),
+                        person.getLastName(),
+                        person.getAddress(),
+                        person.getGender(),
+                        person.getEnabled() != null && person.getEnabled() ? "Yes" : "No"
+                };
+
+                if (rowIndex >= maxRowsPerSheet) {
+                    sheet = createSheet(workbook, sheets, headerStyle);
+                    rowIndex = 1;
+                }
+
+                Row row = sheet.createRow(rowIndex);
                 row.createCell(0).setCellValue(person.getId());
-                row.createCell(1).setCellValue(person.getFirstName());
-                row.createCell(2).setCellValue(person.getLastName());
-                row.createCell(3).setCellValue(person.getAddress());
-                row.createCell(4).setCellValue(person.getGender());
-                row.createCell(5).setCellValue(person.getEnabled() != null && person.getEnabled() ? "Yes" : "No");
+                for (int i = 0; i < values.length; i++) {
+                    row.createCell(i + 1).setCellValue(values[i]);
+                }
+
+                if (exported < widthSampleRows) {
+                    widths[0] = Math.max(widths[0], String.valueOf(person.getId()).length());
+                    for (int i = 0; i < values.length; i++) {
+                        if (values[i] != null) widths[i + 1] = Math.max(widths[i + 1], values[i].length());
+                    }
+                }
+                rowIndex++;
+                exported++;
             }
 
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            for (Sheet each : sheets) {
+                for (int i = 0; i < widths.length; i++) {
+                    each.setColumnWidth(i, Math.min(widths[i] + 2, MAX_COLUMN_CHARS) * 256);
+                }
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-            return new ByteArrayResource(outputStream.toByteArray());
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static Sheet createSheet(Workbook workbook, List<Sheet> sheets, CellStyle headerStyle) {
+        Sheet sheet = workbook.createSheet(sheets.isEmpty() ? "People" : "People " + (sheets.size() + 1));
+        sheets.add(sheet);
+
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
         }
+        return sheet;
     }
 
+    // Created once per workbook, every header cell shares it
     private CellStyle createHeaderCellStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
@@ -0,0 +1,47 @@
+package br.com.erudio.file.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Groups the rows of a streaming import into fixed-size chunks and hands each full chunk to the sink,
+ * so only one chunk is held in memory at a time. Call flush() after the last row.
+ */
+public class ChunkedConsumer<T> implements Consumer<T> {
+
+    private final int chunkSize;
+    private final Consumer<List<T>> sink;
+
+    private List<T> chunk;
+    private long count;
+    private int chunks;
+
+    public ChunkedConsumer(int chunkSize, Consumer<List<T>> sink) {
+        this.chunkSize = Math.max(1, chunkSize);
+        this.sink = sink;
+        this.chunk = new ArrayList<>(this.chunkSize);
+    }
+
+    @Override
+    public void accept(T row) {
+        chunk.add(row);
+        if (chunk.size() == chunkSize) flush();
+    }
+
+    public void flush() {
+        if (chunk.isEmpty()) return;
+        sink.accept(chunk);
+        count += chunk.size();
+        chunks++;
+        chunk = new ArrayList<>(chunkSize);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+}
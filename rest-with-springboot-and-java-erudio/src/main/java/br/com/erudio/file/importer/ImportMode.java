@@ -0,0 +1,19 @@
+package br.com.erudio.file.importer;
+
+import br.com.erudio.exception.BadRequestException;
+
+public enum ImportMode {
+
+    // Every row becomes a new person
+    INSERT,
+
+    // Rows matching an existing person on the natural key update it, the others are inserted
+    UPSERT;
+
+    public static ImportMode from(String mode) {
+        for (ImportMode value : values()) {
+            if (value.name().equalsIgnoreCase(mode)) return value;
+        }
+        throw new BadRequestException("Invalid Import Mode!");
+    }
+}
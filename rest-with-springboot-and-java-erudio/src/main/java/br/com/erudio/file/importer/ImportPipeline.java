@@ -0,0 +1,265 @@
+package br.com.erudio.file.importer;
+
+import br.com.erudio.config.ImportPipelineConfig;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a streaming import as three concurrent stages joined by bounded queues: the calling thread parses,
+ * mapper threads validate and map, writer threads group rows into chunks and write them. A full queue
+ * blocks the stage feeding it, so a slow writer throttles parsing instead of letting rows pile up in memory.
+ * Rows move between stages in small batches and may reach the writer out of file order, unless they are
+ * partitioned: then a single mapper routes every row to the writer its key hashes to, so rows sharing a
+ * key are always written by the same writer and in file order.
+ */
+public class ImportPipeline<I, O> {
+
+    private static final long POLL_MILLIS = 100;
+
+    // Marks the end of the input, compared by identity
+    private static final List<?> END = Collections.unmodifiableList(new ArrayList<>());
+
+    private final ImportPipelineConfig config;
+    private final int chunkSize;
+    private final Function<I, O> mapper;
+    private final Consumer<List<O>> writer;
+    private final Function<O, ?> partitionKey;
+    private final ImportProgress progress;
+    private final Runnable checkpoint;
+
+    private final ImportStageStats parseStage = new ImportStageStats("parse", 1);
+    private final ImportStageStats mapStage;
+    private final ImportStageStats writeStage;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger chunks = new AtomicInteger();
+
+    /**
+     * @param mapper returns null for a row that fails validation, it is counted as rejected and dropped
+     * @param checkpoint called before every batch, throwing from it aborts the whole pipeline
+     */
+    public ImportPipeline(ImportPipelineConfig config, int chunkSize, Function<I, O> mapper,
+                          Consumer<List<O>> writer, ImportProgress progress, Runnable checkpoint) {
+        this(config, chunkSize, mapper, writer, null, progress, checkpoint);
+    }
+
+    /**
+     * @param partitionKey when not null, rows with equal keys go to the same writer in file order
+     */
+    public ImportPipeline(ImportPipelineConfig config, int chunkSize, Function<I, O> mapper,
+                          Consumer<List<O>> writer, Function<O, ?> partitionKey, ImportProgress progress,
+                          Runnable checkpoint) {
+        this.config = config;
+        this.chunkSize = chunkSize;
+        this.mapper = mapper;
+        this.writer = writer;
+        this.partitionKey = partitionKey;
+        this.progress = progress;
+        this.checkpoint = checkpoint;
+        // More than one mapper could hand over two rows of the same key in reverse order
+        this.mapStage = new ImportStageStats("map", partitionKey == null ? Math.max(1, config.getMappers()) : 1);
+        this.writeStage = new ImportStageStats("write", Math.max(1, config.getWriters()));
+    }
+
+    public List<ImportStageStats> getStages() {
+        return List.of(parseStage, mapStage, writeStage);
+    }
+
+    public int getChunks() {
+        return chunks.get();
+    }
+
+    /**
+     * Feeds the rows the source emits through the stages and returns once every chunk is written,
+     * rethrowing the first failure of any stage.
+     */
+    public void run(ThrowingConsumer<Consumer<I>> source) throws Exception {
+        int mappers = mapStage.getThreads();
+        int writers = writeStage.getThreads();
+        BlockingQueue<List<I>> parsed = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        // One queue shared by the writers, or one per writer when partitioned
+        List<BlockingQueue<List<O>>> mapped = new ArrayList<>();
+        for (int i = 0; i < (partitionKey == null ? 1 : writers); i++) {
+            mapped.add(new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())));
+        }
+
+        var threads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(mappers + writers,
+                runnable -> new Thread(runnable, "import-pipeline-" + threads.incrementAndGet()));
+        List<Future<?>> stages = new ArrayList<>();
+        try {
+            var mappersLeft = new AtomicInteger(mappers);
+            for (int i = 0; i < mappers; i++) {
+                stages.add(workers.submit(() -> stage(() -> map(parsed, mapped, mappersLeft, writers))));
+            }
+            for (int i = 0; i < writers; i++) {
+                var queue = mapped.get(i % mapped.size());
+                stages.add(workers.submit(() -> stage(() -> write(queue))));
+            }
+
+            stage(() -> parse(source, parsed, mappers));
+
+            for (Future<?> stage : stages) stage.get();
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Throwable failed = failure.get();
+        if (failed instanceof Exception e) throw e;
+        if (failed instanceof Error e) throw e;
+    }
+
+    private void parse(ThrowingConsumer<Consumer<I>> source, BlockingQueue<List<I>> parsed, int mappers) throws Exception {
+        long start = System.nanoTime();
+        var batch = new Object() {
+            List<I> rows = new ArrayList<>(config.getHandoffSize());
+            long count;
+        };
+
+        source.acceptWithException(row -> {
+            progress.rowProcessed();
+            batch.count++;
+            batch.rows.add(row);
+            if (batch.rows.size() >= config.getHandoffSize()) {
+                checkpoint.run();
+                put(parsed, batch.rows, parseStage);
+                batch.rows = new ArrayList<>(config.getHandoffSize());
+            }
+        });
+        if (!batch.rows.isEmpty()) put(parsed, batch.rows, parseStage);
+        for (int i = 0; i < mappers; i++) put(parsed, end(), parseStage);
+
+        // Parsing happens inside the importer's callbacks, its busy time is whatever was not spent blocked
+        parseStage.busy(System.nanoTime() - start - parseStage.getOutputWaitNanos(), batch.count);
+    }
+
+    private void map(BlockingQueue<List<I>> parsed, List<BlockingQueue<List<O>>> mapped, AtomicInteger mappersLeft, int writers) {
+        while (true) {
+            List<I> batch = take(parsed, mapStage);
+            if (batch == END) {
+                // The last mapper to finish tells every writer the input is over
+                if (mappersLeft.decrementAndGet() == 0) {
+                    for (int i = 0; i < writers; i++) put(mapped.get(i % mapped.size()), end(), mapStage);
+                }
+                return;
+            }
+            checkpoint.run();
+
+            long start = System.nanoTime();
+            List<O> rows = new ArrayList<>(batch.size());
+            for (I row : batch) {
+                O mappedRow = mapper.apply(row);
+                if (mappedRow == null) {
+                    progress.rowRejected();
+                } else {
+                    rows.add(mappedRow);
+                }
+            }
+            mapStage.busy(System.nanoTime() - start, batch.size());
+
+            if (partitionKey == null) {
+                if (!rows.isEmpty()) put(mapped.get(0), rows, mapStage);
+                continue;
+            }
+            List<List<O>> partitions = new ArrayList<>(mapped.size());
+            for (int i = 0; i < mapped.size(); i++) partitions.add(new ArrayList<>());
+            for (O row : rows) {
+                partitions.get(Math.floorMod(Objects.hashCode(partitionKey.apply(row)), mapped.size())).add(row);
+            }
+            for (int i = 0; i < mapped.size(); i++) {
+                if (!partitions.get(i).isEmpty()) put(mapped.get(i), partitions.get(i), mapStage);
+            }
+        }
+    }
+
+    private void write(BlockingQueue<List<O>> mapped) {
+        var chunked = new ChunkedConsumer<O>(chunkSize, chunk -> {
+            checkpoint.run();
+            long start = System.nanoTime();
+            writer.accept(chunk);
+            writeStage.busy(System.nanoTime() - start, chunk.size());
+            progress.rowsImported(chunk.size());
+        });
+
+        while (true) {
+            List<O> batch = take(mapped, writeStage);
+            if (batch == END) {
+                chunked.flush();
+                chunks.addAndGet(chunked.getChunks());
+                return;
+            }
+            batch.forEach(chunked);
+        }
+    }
+
+    private <T> void put(BlockingQueue<List<T>> queue, List<T> batch, ImportStageStats stats) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) throw new Aborted();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Aborted();
+        } finally {
+            stats.waitedForOutput(System.nanoTime() - start);
+        }
+    }
+
+    private <T> List<T> take(BlockingQueue<List<T>> queue, ImportStageStats stats) {
+        long start = System.nanoTime();
+        try {
+            List<T> batch;
+            while ((batch = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (failure.get() != null) throw new Aborted();
+            }
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Aborted();
+        } finally {
+            stats.waitedForInput(System.nanoTime() - start);
+        }
+    }
+
+    // Records the first failure, the other stages see it on their next queue operation and stop
+    private void stage(ThrowingRunnable work) {
+        try {
+            work.run();
+        } catch (Aborted e) {
+            // Another stage failed first
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> end() {
+        return (List<T>) END;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static class Aborted extends RuntimeException {
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.erudio.file.importer;
+
+/**
+ * Receives the row counts of a running import, called from the thread of whichever stage saw the row.
+ */
+public interface ImportProgress {
+
+    void rowProcessed();
+
+    void rowRejected();
+
+    void rowsImported(long rows);
+}
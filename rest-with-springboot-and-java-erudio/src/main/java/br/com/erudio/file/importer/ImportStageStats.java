@@ -0,0 +1,60 @@
+package br.com.erudio.file.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of one pipeline stage. A stage mostly waiting for input is starved by the one before it,
+ * a stage mostly blocked on output is held back by the one after it; the bottleneck is the stage that
+ * spends its time busy.
+ */
+public class ImportStageStats {
+
+    private final String name;
+    private final int threads;
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong inputWaitNanos = new AtomicLong();
+    private final AtomicLong outputWaitNanos = new AtomicLong();
+
+    public ImportStageStats(String name, int threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    public long getBusyNanos() {
+        return busyNanos.get();
+    }
+
+    public long getInputWaitNanos() {
+        return inputWaitNanos.get();
+    }
+
+    public long getOutputWaitNanos() {
+        return outputWaitNanos.get();
+    }
+
+    void busy(long nanos, long rows) {
+        busyNanos.addAndGet(nanos);
+        items.addAndGet(rows);
+    }
+
+    void waitedForInput(long nanos) {
+        inputWaitNanos.addAndGet(nanos);
+    }
+
+    void waitedForOutput(long nanos) {
+        outputWaitNanos.addAndGet(nanos);
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.erudio.file.importer;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+
+/**
+ * Checks an imported row against the person table constraints before it reaches the database, so a
+ * bad row is counted and skipped instead of failing the whole chunk.
+ */
+public final class PersonRowValidator {
+
+    private PersonRowValidator() {}
+
+    public static boolean isValid(PersonDTO person) {
+        return hasText(person.getFirstName(), 80)
+                && hasText(person.getLastName(), 80)
+                && hasText(person.getAddress(), 100)
+                && hasText(person.getGender(), 6);
+    }
+
+    private static boolean hasText(String value, int maxLength) {
+        return value != null && !value.isBlank() && value.length() <= maxLength;
+    }
+}
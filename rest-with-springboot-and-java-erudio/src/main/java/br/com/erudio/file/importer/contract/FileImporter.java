@@ -3,9 +3,18 @@ package br.com.erudio.file.importer.contract;
 import br.com.erudio.data.dto.v1.PersonDTO;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FileImporter {
 
-    List<PersonDTO> importFile(InputStream inputStream) throws Exception;
+    // Hands each row to the consumer as soon as it is parsed, the parser waits while the consumer works
+    void importFile(InputStream inputStream, Consumer<PersonDTO> consumer) throws Exception;
+
+    default List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+        List<PersonDTO> people = new ArrayList<>();
+        importFile(inputStream, people::add);
+        return people;
+    }
 }
@@ -8,14 +8,13 @@ import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
 @Component
 public class CsvImporter implements FileImporter {
 
     @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+    public void importFile(InputStream inputStream, Consumer<PersonDTO> consumer) throws Exception {
         CSVFormat format = CSVFormat.Builder.create()
                 .setHeader()
                 .setSkipHeaderRecord(true)
@@ -25,12 +24,10 @@ public class CsvImporter implements FileImporter {
 
         Iterable<CSVRecord> records = format.parse(new InputStreamReader(inputStream));
 
-        return parseRecordsToPersonDTOs(records);
+        parseRecordsToPersonDTOs(records, consumer);
     }
 
-    private List<PersonDTO> parseRecordsToPersonDTOs(Iterable<CSVRecord> records) {
-
-        List<PersonDTO> people = new ArrayList<>();
+    private void parseRecordsToPersonDTOs(Iterable<CSVRecord> records, Consumer<PersonDTO> consumer) {
 
         for (CSVRecord record : records) {
             PersonDTO person = new PersonDTO();
@@ -39,8 +36,7 @@ public class CsvImporter implements FileImporter {
             person.setAddress(record.get("address"));
             person.setGender(record.get("gender"));
             person.setEnabled(true);
-            people.add(person);
+            consumer.accept(person);
         }
-        return people;
     }
 }
@@ -2,63 +2,112 @@ package br.com.erudio.file.importer.impl;
 
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.file.importer.contract.FileImporter;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
 
+/**
+ * Reads the first sheet with POI's event model: the sheet XML is parsed with SAX and rows are handed
+ * over as they end, so no workbook DOM is built and memory does not grow with the number of rows.
+ */
 @Component
 public class XlsxImporter implements FileImporter {
-    @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
-        
-        try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)){
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            
-            return parseRowsToPersonDtoList(rowIterator);
-            
-        }
-     }
 
-    private List<PersonDTO> parseRowsToPersonDtoList(Iterator<Row> rowIterator) {
+    private static final int COLUMNS = 4;
 
-        List<PersonDTO> people = new ArrayList<>();
+    @Override
+    public void importFile(InputStream inputStream, Consumer<PersonDTO> consumer) throws Exception {
 
-        while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
-            if (isRowValid(row)) {
-                people.add(parseRowToPersonDto(row));
+        // Opened from a file the zip entries are read on demand instead of being inflated into memory
+        Path file = Files.createTempFile("people-import", ".xlsx");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                var strings = new ReadOnlySharedStringsTable(pkg, false);
+                var handler = new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                        new PersonRowsHandler(consumer), new DataFormatter(), false);
 
+                try (InputStream sheet = reader.getSheetsData().next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(handler);
+                    parser.parse(new InputSource(sheet));
+                }
             }
+        } finally {
+            Files.deleteIfExists(file);
         }
-
-        return people;
     }
 
-    private PersonDTO parseRowToPersonDto(Row row) {
+    private static PersonDTO parseRowToPersonDto(String[] row) {
 
         PersonDTO person = new PersonDTO();
-        person.setFirstName(row.getCell(0).getStringCellValue());
-        person.setLastName(row.getCell(1).getStringCellValue());
-        person.setAddress(row.getCell(2).getStringCellValue());
-        person.setGender(row.getCell(3).getStringCellValue());
+        person.setFirstName(row[0]);
+        person.setLastName(row[1]);
+        person.setAddress(row[2]);
+        person.setGender(row[3]);
         person.setEnabled(true);
 
         return person;
     }
 
-    private static boolean isRowValid(Row row) {
-        return row.getCell(0) != null && row.getCell(0).getCellType() != CellType.BLANK;
+    private static boolean isRowValid(String[] row) {
+        // Like the BLANK cell check of the row model: a missing or empty cell, whitespace still counts
+        return row[0] != null && !row[0].isEmpty();
+    }
+
+    private static class PersonRowsHandler implements SheetContentsHandler {
+
+        private final Consumer<PersonDTO> consumer;
+        private final String[] row = new String[COLUMNS];
+        private boolean header = true;
+        private int column;
+
+        PersonRowsHandler(Consumer<PersonDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(row, null);
+            column = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Like the DOM importer, the first row present in the sheet is the header
+            if (header) {
+                header = false;
+                return;
+            }
+            if (isRowValid(row)) {
+                consumer.accept(parseRowToPersonDto(row));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference != null) column = new CellReference(cellReference).getCol();
+            if (column < COLUMNS) row[column] = formattedValue;
+            column++;
+        }
     }
 }
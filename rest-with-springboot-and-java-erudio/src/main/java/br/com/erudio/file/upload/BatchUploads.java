@@ -0,0 +1,103 @@
+package br.com.erudio.file.upload;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stores the files of a batch upload concurrently. Each request gets at most request-concurrency
+ * virtual threads, which take the files in order, and a global semaphore keeps the number of files
+ * being written across all requests under max-concurrency, so a few large batches can't flood the disk.
+ */
+@Component
+public class BatchUploads {
+
+    @FunctionalInterface
+    public interface Upload<T, R> {
+        R store(T item) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Failure<T, R> {
+        R failed(T item, Exception e);
+    }
+
+    @Value("${file.upload.request-concurrency:4}")
+    int requestConcurrency = 4;
+
+    @Value("${file.upload.max-concurrency:16}")
+    int maxConcurrency = 16;
+
+    private ExecutorService executor;
+    private Semaphore permits;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-upload-", 1).factory());
+        permits = new Semaphore(Math.max(1, maxConcurrency), true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stores every item and returns one result per item, in the order given. An item that fails is
+     * reported through onFailure and does not stop the others.
+     */
+    public <T, R> List<R> storeAll(List<T> items, Upload<T, R> upload, Failure<T, R> onFailure) throws InterruptedException {
+        Object[] results = new Object[items.size()];
+        var next = new AtomicInteger();
+
+        int workers = Math.min(items.size(), Math.max(1, requestConcurrency));
+        List<Future<?>> running = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                running.add(executor.submit(() -> {
+                    for (int index; (index = next.getAndIncrement()) < items.size(); ) {
+                        results[index] = store(items.get(index), upload, onFailure);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : running) worker.get();
+        } catch (ExecutionException e) {
+            // store reports failures per item, only an interrupt or an Error gets here
+            if (e.getCause() instanceof InterruptedException interrupted) throw interrupted;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // The items usually belong to the request, nothing may touch them once it returns
+            running.forEach(worker -> worker.cancel(true));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+
+    private <T, R> R store(T item, Upload<T, R> upload, Failure<T, R> onFailure) throws InterruptedException {
+        permits.acquire();
+        try {
+            return upload.store(item);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            return onFailure.failed(item, e);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.erudio.file.upload;
+
+import br.com.erudio.exception.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.InputStream;
+
+/**
+ * Reads a multipart request body as it arrives, handing the file part straight to the caller instead of
+ * spooling it to a temp file first. Only works while the multipart resolver is lazy and nothing has
+ * asked the request for its parts or parameters yet, both would consume the body.
+ */
+@Component
+public class MultipartStreams {
+
+    @FunctionalInterface
+    public interface FilePart<R> {
+        R read(String fileName, String contentType, InputStream content) throws Exception;
+    }
+
+    @Value("${spring.servlet.multipart.max-file-size:200MB}")
+    private DataSize maxFileSize = DataSize.ofMegabytes(200);
+
+    @Value("${spring.servlet.multipart.max-request-size:215MB}")
+    private DataSize maxRequestSize = DataSize.ofMegabytes(215);
+
+    /**
+     * Hands the first file part of the given field to the reader, while the client is still sending it,
+     * and returns what the reader returns. Parts after it are skipped.
+     */
+    public <R> R readFile(HttpServletRequest request, String fieldName, FilePart<R> reader) throws Exception {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new BadRequestException("Please set a Valid File!");
+        }
+
+        var upload = new JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory>();
+        upload.setFileSizeMax(maxFileSize.toBytes());
+        upload.setSizeMax(maxRequestSize.toBytes());
+
+        try {
+            FileItemInputIterator parts = upload.getItemIterator(request);
+            while (parts.hasNext()) {
+                FileItemInput part = parts.next();
+                if (part.isFormField() || !fieldName.equals(part.getFieldName())) continue;
+                if (part.getName() == null || part.getName().isBlank()) {
+                    throw new BadRequestException("File Name cannot be null");
+                }
+
+                try (InputStream content = part.getInputStream()) {
+                    return reader.read(part.getName(), part.getContentType(), content);
+                }
+            }
+        } catch (Exception e) {
+            // Readers may wrap the limit being hit while they read, e.g. in an UncheckedIOException
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof FileUploadSizeException size) {
+                    throw new MaxUploadSizeExceededException(size.getPermitted(), size);
+                }
+            }
+            throw e;
+        }
+        throw new BadRequestException("Please set a Valid File!");
+    }
+}
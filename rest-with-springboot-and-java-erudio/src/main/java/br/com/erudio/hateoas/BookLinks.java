@@ -0,0 +1,32 @@
+package br.com.erudio.hateoas;
+
+import br.com.erudio.controllers.BookController;
+import org.springframework.hateoas.Link;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Links of {@link BookController} for one base URI, see {@link PersonLinks}.
+ */
+public record BookLinks(String controllerUri, Link findAll, Link create, Link update) {
+
+    public static BookLinks resolve(String controllerUri) {
+        return new BookLinks(controllerUri,
+                linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(BookController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(BookController.class).update(null)).withRel("update").withType("PUT"));
+    }
+
+    public Link self(long id) {
+        return Link.of(byId(id)).withSelfRel().withType("GET");
+    }
+
+    public Link delete(long id) {
+        return Link.of(byId(id)).withRel("delete").withType("DELETE");
+    }
+
+    private String byId(long id) {
+        return controllerUri + "/" + id;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.erudio.hateoas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Resolves the links of a controller once per base URI (scheme, host, port and context path of the
+ * current request) instead of building them through a methodOn proxy for every DTO.
+ */
+public class LinkTemplateCache<T> {
+
+    // Base URIs come from the Host header, so the cache is reset instead of growing without bounds.
+    private static final int MAX_BASE_URIS = 64;
+
+    private final Class<?> controller;
+    private final Function<String, T> resolver;
+    private final Map<String, T> templates = new ConcurrentHashMap<>();
+
+    public LinkTemplateCache(Class<?> controller, Function<String, T> resolver) {
+        this.controller = controller;
+        this.resolver = resolver;
+    }
+
+    public T current() {
+        String controllerUri = linkTo(controller).toUri().toString();
+
+        T resolved = templates.get(controllerUri);
+        if (resolved == null) {
+            if (templates.size() >= MAX_BASE_URIS) templates.clear();
+            resolved = templates.computeIfAbsent(controllerUri, resolver);
+        }
+        return resolved;
+    }
+}
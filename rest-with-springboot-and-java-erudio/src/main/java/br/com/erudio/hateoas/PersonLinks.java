@@ -0,0 +1,41 @@
+package br.com.erudio.hateoas;
+
+import br.com.erudio.controllers.PersonController;
+import org.springframework.hateoas.Link;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Links of {@link PersonController} for one base URI. The links that don't depend on the person are
+ * immutable and shared by every DTO, the others only append the id to the controller URI.
+ */
+public record PersonLinks(String controllerUri, Link findAll, Link findByName, Link create, Link massCreation,
+                          Link update, Link exportPage) {
+
+    public static PersonLinks resolve(String controllerUri) {
+        return new PersonLinks(controllerUri,
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"),
+                linkTo(methodOn(PersonController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(PersonController.class)).slash("massCreation").withRel("massCreation").withType("POST"),
+                linkTo(methodOn(PersonController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(PersonController.class).exportPage(1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("export People"));
+    }
+
+    public Link self(long id) {
+        return Link.of(byId(id)).withSelfRel().withType("GET");
+    }
+
+    public Link disabled(long id) {
+        return Link.of(byId(id)).withRel("disabled").withType("PATCH");
+    }
+
+    public Link delete(long id) {
+        return Link.of(byId(id)).withRel("delete").withType("DELETE");
+    }
+
+    private String byId(long id) {
+        return controllerUri + "/" + id;
+    }
+}
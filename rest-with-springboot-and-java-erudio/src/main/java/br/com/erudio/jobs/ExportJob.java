@@ -0,0 +1,38 @@
+package br.com.erudio.jobs;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExportJob extends Job {
+
+    private final String format;
+    private final String fileName;
+    private final String fileDownloadUri;
+    private final AtomicLong processedRows = new AtomicLong();
+
+    // downloadBaseUri is the downloadFile endpoint, the file is named after the job
+    public ExportJob(String format, String downloadBaseUri) {
+        this.format = format;
+        this.fileName = "people_export_" + getId() + "." + format;
+        this.fileDownloadUri = downloadBaseUri + fileName;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getFileDownloadUri() {
+        return fileDownloadUri;
+    }
+
+    public long getProcessedRows() {
+        return processedRows.get();
+    }
+
+    public void rowProcessed() {
+        processedRows.incrementAndGet();
+    }
+}
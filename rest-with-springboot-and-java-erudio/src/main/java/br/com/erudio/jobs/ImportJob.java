@@ -0,0 +1,94 @@
+package br.com.erudio.jobs;
+
+import br.com.erudio.file.importer.ImportMode;
+import br.com.erudio.file.importer.ImportProgress;
+import br.com.erudio.file.importer.ImportStageStats;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportJob extends Job implements ImportProgress {
+
+    private final String fileName;
+    private final ImportMode mode;
+    // The job's own copy of the uploaded file, deleted once the job is done with it
+    private final Path upload;
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong updatedRows = new AtomicLong();
+    private final AtomicLong errorRows = new AtomicLong();
+    private volatile List<ImportStageStats> stages = List.of();
+
+    public ImportJob(String fileName, ImportMode mode, Path upload) {
+        this.fileName = fileName;
+        this.mode = mode;
+        this.upload = upload;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public ImportMode getMode() {
+        return mode;
+    }
+
+    public Path getUpload() {
+        return upload;
+    }
+
+    public long getProcessedRows() {
+        return processedRows.get();
+    }
+
+    public long getImportedRows() {
+        return importedRows.get();
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows.get();
+    }
+
+    public long getErrorRows() {
+        return errorRows.get();
+    }
+
+    // Rows parsed per second since the job started, up to now or until it finished
+    public double getRowsPerSecond() {
+        var started = getStartedAt();
+        if (started == null) return 0;
+        var until = getFinishedAt() != null ? getFinishedAt() : Instant.now();
+        double seconds = Duration.between(started, until).toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? processedRows.get() / seconds : 0;
+    }
+
+    public List<ImportStageStats> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<ImportStageStats> stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    public void rowProcessed() {
+        processedRows.incrementAndGet();
+    }
+
+    @Override
+    public void rowRejected() {
+        errorRows.incrementAndGet();
+    }
+
+    @Override
+    public void rowsImported(long rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    public void rowsUpdated(long rows) {
+        updatedRows.addAndGet(rows);
+    }
+}
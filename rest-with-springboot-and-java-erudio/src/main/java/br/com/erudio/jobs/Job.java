@@ -0,0 +1,76 @@
+package br.com.erudio.jobs;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+
+/**
+ * State of a background job. Transitions are synchronized so a cancel racing with the end of the
+ * work always leaves the job CANCELLED, and finished jobs never change again.
+ */
+public abstract class Job {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant createdAt = Instant.now();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    // Called by the work between rows, stops it once the job was cancelled
+    public void checkCancelled() {
+        if (status == JobStatus.CANCELLED) throw new CancellationException("Job " + id + " was cancelled");
+    }
+
+    public synchronized void cancel() {
+        if (!status.isFinished()) finish(JobStatus.CANCELLED);
+    }
+
+    synchronized boolean start() {
+        if (status != JobStatus.QUEUED) return false;
+        status = JobStatus.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void complete() {
+        if (status == JobStatus.RUNNING) finish(JobStatus.COMPLETED);
+    }
+
+    synchronized void fail(String message) {
+        if (status == JobStatus.RUNNING) {
+            error = message;
+            finish(JobStatus.FAILED);
+        }
+    }
+
+    private void finish(JobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+}
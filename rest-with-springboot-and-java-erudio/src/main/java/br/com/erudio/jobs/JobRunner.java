@@ -0,0 +1,123 @@
+package br.com.erudio.jobs;
+
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.exception.TooManyJobsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs jobs on its own fixed pool of workers with a bounded queue, apart from the web threads, and
+ * keeps them queryable until the retention after they finish has passed. Whatever a job leaves behind
+ * is handed to the discard callback once the job is purged, or as soon as it ends cancelled or failed.
+ */
+public class JobRunner<J extends Job> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, J> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService purger;
+    private final Duration retention;
+    private final Consumer<J> discard;
+
+    public JobRunner(String name, int workers, int queueCapacity, Duration retention) {
+        this(name, workers, queueCapacity, retention, job -> {});
+    }
+
+    public JobRunner(String name, int workers, int queueCapacity, Duration retention, Consumer<J> discard) {
+        var threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, name + "-" + threads.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retention = retention;
+        this.discard = discard;
+
+        // Purged on a schedule, not only when the next job comes in, so an idle runner frees its jobs too
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name + "-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, Math.min(retention.toMillis(), Duration.ofMinutes(1).toMillis()));
+        purger.scheduleWithFixedDelay(this::purgeFinished, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public J submit(J job, Consumer<J> work) {
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new TooManyJobsException("Too many jobs in progress, please try again later!");
+        }
+        return job;
+    }
+
+    public J find(String id) {
+        var job = jobs.get(id);
+        if (job == null) throw new ResourceNotFoundException("No job found for this ID!");
+        return job;
+    }
+
+    public J cancel(String id) {
+        var job = find(id);
+        job.cancel();
+        return job;
+    }
+
+    public void shutdown() {
+        purger.shutdownNow();
+        jobs.values().forEach(Job::cancel);
+        executor.shutdownNow();
+        // Queued jobs are dropped with the executor's queue, run() never discards them
+        jobs.values().stream().filter(job -> job.getStartedAt() == null).forEach(this::discard);
+    }
+
+    private void run(J job, Consumer<J> work) {
+        // A job cancelled while queued never starts
+        if (!job.start()) {
+            discard(job);
+            return;
+        }
+        try {
+            work.accept(job);
+            job.complete();
+        } catch (Exception e) {
+            logger.error("Job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+        // Also catches a cancel that landed after the work was done but before complete()
+        if (job.getStatus() != JobStatus.COMPLETED) discard(job);
+    }
+
+    void purgeFinished() {
+        var limit = Instant.now().minus(retention);
+        for (J job : jobs.values()) {
+            if (job.getStatus().isFinished() && job.getFinishedAt().isBefore(limit) && jobs.remove(job.getId(), job)) {
+                discard(job);
+            }
+        }
+    }
+
+    private void discard(J job) {
+        try {
+            discard.accept(job);
+        } catch (Exception e) {
+            logger.warn("Could not discard what job {} left behind", job.getId(), e);
+        }
+    }
+}
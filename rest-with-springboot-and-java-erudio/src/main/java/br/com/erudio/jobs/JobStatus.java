@@ -0,0 +1,9 @@
+package br.com.erudio.jobs;
+
+public enum JobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
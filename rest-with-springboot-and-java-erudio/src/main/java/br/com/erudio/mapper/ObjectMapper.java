@@ -1,27 +1,68 @@
 package br.com.erudio.mapper;
 
+import br.com.erudio.data.dto.v1.BookDTO;
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.mapper.mapstruct.BookDTOMapper;
+import br.com.erudio.mapper.mapstruct.PersonDTOMapper;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class ObjectMapper {
 
-    private static Mapper mapper = DozerBeanMapperBuilder.buildDefault();
+    // Mappers generated at build time by MapStruct, indexed by origin and destination class.
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> mappers = new HashMap<>();
+
+    static {
+        register(Person.class, PersonDTO.class, PersonDTOMapper.INSTANCE::toDTO);
+        register(PersonDTO.class, Person.class, PersonDTOMapper.INSTANCE::toEntity);
+        register(PersonDTO.class, PersonDTO.class, PersonDTOMapper.INSTANCE::copy);
+        register(Book.class, BookDTO.class, BookDTOMapper.INSTANCE::toDTO);
+        register(BookDTO.class, Book.class, BookDTOMapper.INSTANCE::toEntity);
+        register(BookDTO.class, BookDTO.class, BookDTOMapper.INSTANCE::copy);
+    }
 
     public static <O, D> D parseObjects(O origin, Class<D> destination) {
-        return mapper.map(origin, destination);
+        return destination.cast(resolve(origin.getClass(), destination).apply(origin));
     }
 
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
 
-        List<D> destinationObjects = new ArrayList<D>();
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
 
         for (Object o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+            destinationObjects.add(parseObjects(o, destination));
         }
 
         return destinationObjects;
     }
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> void register(Class<O> origin, Class<D> destination, Function<O, D> mapper) {
+        mappers.computeIfAbsent(origin, key -> new HashMap<>()).put(destination, (Function<Object, Object>) mapper);
+    }
+
+    private static Function<Object, Object> resolve(Class<?> origin, Class<?> destination) {
+        // Walks up the hierarchy so Hibernate proxies resolve to the mapper of their entity.
+        for (Class<?> type = origin; type != null; type = type.getSuperclass()) {
+            var byDestination = mappers.get(type);
+            if (byDestination != null) {
+                var mapper = byDestination.get(destination);
+                if (mapper != null) return mapper;
+            }
+        }
+        return o -> DozerHolder.mapper.map(o, destination);
+    }
+
+    // Reflective fallback for pairs without a generated mapper, only built when first needed.
+    private static class DozerHolder {
+        private static final Mapper mapper = DozerBeanMapperBuilder.buildDefault();
+    }
 }
@@ -0,0 +1,19 @@
+package br.com.erudio.mapper.mapstruct;
+
+import br.com.erudio.data.dto.v1.BookDTO;
+import br.com.erudio.model.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BookDTOMapper {
+
+    BookDTOMapper INSTANCE = Mappers.getMapper(BookDTOMapper.class);
+
+    BookDTO toDTO(Book book);
+
+    Book toEntity(BookDTO book);
+
+    BookDTO copy(BookDTO book);
+}
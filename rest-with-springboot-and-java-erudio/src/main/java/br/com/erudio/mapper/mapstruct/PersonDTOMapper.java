@@ -0,0 +1,19 @@
+package br.com.erudio.mapper.mapstruct;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.model.Person;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PersonDTOMapper {
+
+    PersonDTOMapper INSTANCE = Mappers.getMapper(PersonDTOMapper.class);
+
+    PersonDTO toDTO(Person person);
+
+    Person toEntity(PersonDTO person);
+
+    PersonDTO copy(PersonDTO person);
+}
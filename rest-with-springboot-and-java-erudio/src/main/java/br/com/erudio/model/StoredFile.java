@@ -0,0 +1,95 @@
+package br.com.erudio.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+@Entity
+@Table(name = "stored_files")
+public class StoredFile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // The name the file is uploaded and downloaded with
+    @Id
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    // Hex SHA-256 of the content, several names can point to the same content
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "stored_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date storedAt;
+
+    public StoredFile() {}
+
+    public StoredFile(String name, String sha256, Long size, String contentType, Date storedAt) {
+        this.name = name;
+        this.sha256 = sha256;
+        this.size = size;
+        this.contentType = contentType;
+        this.storedAt = storedAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Date getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Date storedAt) {
+        this.storedAt = storedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        StoredFile that = (StoredFile) o;
+        return Objects.equals(name, that.name) && Objects.equals(sha256, that.sha256) && Objects.equals(size, that.size) && Objects.equals(contentType, that.contentType) && Objects.equals(storedAt, that.storedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, sha256, size, contentType, storedAt);
+    }
+}
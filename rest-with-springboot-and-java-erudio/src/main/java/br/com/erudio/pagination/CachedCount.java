@@ -0,0 +1,36 @@
+package br.com.erudio.pagination;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate total for clients that page without COUNT queries. The real count runs at most once per
+ * time to live, every other call gets the last value.
+ */
+public class CachedCount {
+
+    private final long timeToLiveNanos;
+    private final LongSupplier counter;
+
+    private volatile long value;
+    private volatile long refreshedAt;
+    private volatile boolean loaded;
+
+    public CachedCount(Duration timeToLive, LongSupplier counter) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.counter = counter;
+    }
+
+    public long get() {
+        if (!loaded || System.nanoTime() - refreshedAt > timeToLiveNanos) {
+            synchronized (this) {
+                if (!loaded || System.nanoTime() - refreshedAt > timeToLiveNanos) {
+                    value = counter.getAsLong();
+                    refreshedAt = System.nanoTime();
+                    loaded = true;
+                }
+            }
+        }
+        return value;
+    }
+}
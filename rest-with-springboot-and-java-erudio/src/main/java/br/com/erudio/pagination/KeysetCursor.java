@@ -0,0 +1,30 @@
+package br.com.erudio.pagination;
+
+import br.com.erudio.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the sort key (firstName, title...) plus the id that breaks
+ * ties between equal keys. Clients only see it as the opaque "after" token.
+ */
+public record KeysetCursor(String key, long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        var raw = id + String.valueOf(SEPARATOR) + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor!");
+        }
+    }
+}
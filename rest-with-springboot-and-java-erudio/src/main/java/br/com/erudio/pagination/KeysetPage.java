@@ -0,0 +1,75 @@
+package br.com.erudio.pagination;
+
+import br.com.erudio.exception.BadRequestException;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page fetched with a seek predicate. Queries ask for size + 1 rows, the extra row only tells whether
+ * there is a next page, so no COUNT query is needed.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> rows;
+    private final int size;
+
+    public KeysetPage(List<T> rows, int size) {
+        this.rows = rows;
+        this.size = size;
+    }
+
+    // Larger requests get this many rows, it also keeps size + 1 from overflowing
+    public static final int MAX_SIZE = 1000;
+
+    public static int validateSize(int size) {
+        if (size < 1) throw new BadRequestException("Page size must be greater than zero!");
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public boolean hasNext() {
+        return rows.size() > size;
+    }
+
+    public List<T> getContent() {
+        return hasNext() ? rows.subList(0, size) : rows;
+    }
+
+    /**
+     * Builds the HAL model with a self link and, when there are more rows, a next link carrying the
+     * cursor of the last row of this page.
+     */
+    public <D> PagedModel<EntityModel<D>> toModel(Function<T, D> toDTO, Function<T, KeysetCursor> cursorOf,
+                                                  WebMvcLinkBuilder endpoint, String after, Direction direction) {
+        var content = getContent();
+
+        List<EntityModel<D>> models = new ArrayList<>(content.size());
+        for (T row : content) {
+            models.add(EntityModel.of(toDTO.apply(row)));
+        }
+
+        List<Link> links = new ArrayList<>(2);
+        links.add(link(endpoint, after, direction).withSelfRel());
+        if (hasNext()) {
+            var next = cursorOf.apply(content.get(content.size() - 1)).encode();
+            links.add(link(endpoint, next, direction).withRel(IanaLinkRelations.NEXT));
+        }
+
+        return PagedModel.of(models, (PagedModel.PageMetadata) null, links);
+    }
+
+    private Link link(WebMvcLinkBuilder endpoint, String after, Direction direction) {
+        var uri = endpoint.toUriComponentsBuilder()
+                .queryParam("size", size)
+                .queryParam("direction", direction.name().toLowerCase());
+        if (after != null && !after.isBlank()) uri.queryParam("after", after);
+        return Link.of(uri.toUriString());
+    }
+}
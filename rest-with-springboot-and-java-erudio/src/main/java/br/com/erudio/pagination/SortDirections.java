@@ -0,0 +1,24 @@
+package br.com.erudio.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * The "direction" request parameter a pageable was built from, for links that lead back to the same
+ * endpoint. String.valueOf(pageable.getSort()) gives "firstName: DESC", which the endpoints read as asc.
+ */
+public final class SortDirections {
+
+    private SortDirections() {}
+
+    public static String of(Pageable pageable) {
+        return pageable.getSort().stream()
+                .findFirst()
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.ASC)
+                .name()
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,31 @@
 package br.com.erudio.repository;
 
+import br.com.erudio.data.dto.v1.BookDTO;
 import br.com.erudio.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    // Read-only list queries select straight into BookDTO, no managed entity is loaded
+    String SELECT_DTO = "SELECT new br.com.erudio.data.dto.v1.BookDTO(b.id, b.author, b.launchDate, b.price, b.title) FROM Book b";
+
+    @Query(value = SELECT_DTO, countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<BookDTO> findBooks(Pageable pageable);
+
+    // Keyset pagination: the pageable only limits the rows, the seek predicates use idx_books_title_id
+
+    @Query(SELECT_DTO)
+    List<BookDTO> findFirstBooks(Pageable pageable);
+
+    @Query(SELECT_DTO + " WHERE b.title > :title OR (b.title = :title AND b.id > :id) ORDER BY b.title ASC, b.id ASC")
+    List<BookDTO> findBooksAfterAscending(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_DTO + " WHERE b.title < :title OR (b.title = :title AND b.id < :id) ORDER BY b.title DESC, b.id DESC")
+    List<BookDTO> findBooksAfterDescending(@Param("title") String title, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,115 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.model.Person;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists many people in one transaction. Flushing every batch_size rows lets Hibernate send each
+ * group as a single JDBC batch, and clearing keeps the persistence context from growing with the file.
+ */
+@Component
+public class PersonBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${file.import-upsert-key:firstName,lastName,address}")
+    private List<String> upsertKey;
+
+    private PersonNaturalKey naturalKey;
+
+    public record UpsertResult(List<Person> inserted, List<Person> updated) {}
+
+    @PostConstruct
+    void init() {
+        naturalKey = new PersonNaturalKey(upsertKey);
+    }
+
+    // Always a transaction of its own, so streaming imports commit chunk by chunk
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public List<Person> persistAll(List<Person> people) {
+        List<Person> persisted = new ArrayList<>(people.size());
+        for (Person person : people) {
+            entityManager.persist(person);
+            persisted.add(person);
+            if (persisted.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return persisted;
+    }
+
+    public List<String> naturalKeyOf(Person person) {
+        return naturalKey.of(person);
+    }
+
+    /**
+     * Inserts the people whose natural key is new and updates the ones already stored. Existing rows
+     * are resolved with one IN query for the whole chunk instead of a lookup per row; the updates go
+     * out as JDBC batches at the flush, like the inserts.
+     * <p>
+     * The key is configurable and older rows may already repeat it, so the table has no unique index on
+     * it: callers must not upsert the same new key from two transactions at once, or both insert it.
+     * Import jobs route rows to their writers by key for this, two jobs upserting the same file at the
+     * same time can still duplicate rows.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public UpsertResult upsertAll(List<Person> people) {
+        // The last row wins when a chunk repeats a key
+        Map<List<String>, Person> incoming = new LinkedHashMap<>();
+        for (Person person : people) incoming.put(naturalKey.of(person), person);
+
+        Map<List<String>, Person> existing = new HashMap<>();
+        for (Person person : findByNaturalKeys(incoming.keySet())) {
+            existing.putIfAbsent(naturalKey.of(person), person);
+        }
+
+        List<Person> inserted = new ArrayList<>();
+        List<Person> updated = new ArrayList<>();
+        incoming.forEach((key, person) -> {
+            Person current = existing.get(key);
+            if (current == null) {
+                entityManager.persist(person);
+                inserted.add(person);
+            } else {
+                current.setFirstName(person.getFirstName());
+                current.setLastName(person.getLastName());
+                current.setAddress(person.getAddress());
+                current.setGender(person.getGender());
+                if (person.getEnabled() != null) current.setEnabled(person.getEnabled());
+                updated.add(current);
+            }
+        });
+        // No intermediate clear, it would detach the loaded rows before their changes are flushed
+        entityManager.flush();
+        entityManager.clear();
+        return new UpsertResult(inserted, updated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Person> findByNaturalKeys(Collection<List<String>> keys) {
+        if (keys.isEmpty()) return List.of();
+        var query = entityManager.createNativeQuery(naturalKey.selectWhereIn(keys.size()), Person.class);
+        List<Object> parameters = naturalKey.parameters(keys);
+        for (int i = 0; i < parameters.size(); i++) query.setParameter(i + 1, parameters.get(i));
+        return query.getResultList();
+    }
+}
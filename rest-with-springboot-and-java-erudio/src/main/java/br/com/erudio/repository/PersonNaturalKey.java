@@ -0,0 +1,69 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.model.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The columns that identify a person across imports, e.g. firstName, lastName and address. Keys are
+ * compared trimmed and lower cased, the way the case insensitive collation of the person table does.
+ */
+public class PersonNaturalKey {
+
+    private record Field(String column, Function<Person, String> value) {}
+
+    private static final Map<String, Field> FIELDS = Map.of(
+            "firstName", new Field("first_name", Person::getFirstName),
+            "lastName", new Field("last_name", Person::getLastName),
+            "address", new Field("address", Person::getAddress),
+            "gender", new Field("gender", Person::getGender));
+
+    private final List<Field> fields;
+
+    public PersonNaturalKey(List<String> names) {
+        if (names.isEmpty()) throw new IllegalArgumentException("The natural key needs at least one field");
+        this.fields = names.stream().map(String::trim).map(name -> {
+            var field = FIELDS.get(name);
+            if (field == null) throw new IllegalArgumentException("Unknown natural key field: " + name);
+            return field;
+        }).toList();
+    }
+
+    public List<String> of(Person person) {
+        List<String> key = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            String value = field.value().apply(person);
+            key.add(value == null ? null : value.trim().toLowerCase(Locale.ROOT));
+        }
+        return key;
+    }
+
+    /**
+     * A query for every person matching one of the keys, with a single row constructor IN clause,
+     * e.g. WHERE (first_name, last_name, address) IN ((?1, ?2, ?3), (?4, ?5, ?6)).
+     */
+    String selectWhereIn(int keys) {
+        var columns = String.join(", ", fields.stream().map(Field::column).toList());
+        var sql = new StringBuilder("SELECT * FROM person WHERE (").append(columns).append(") IN (");
+        int parameter = 1;
+        for (int i = 0; i < keys; i++) {
+            sql.append(i == 0 ? "(" : ", (");
+            for (int j = 0; j < fields.size(); j++) {
+                sql.append(j == 0 ? "?" : ", ?").append(parameter++);
+            }
+            sql.append(')');
+        }
+        return sql.append(") ORDER BY id").toString();
+    }
+
+    List<Object> parameters(Collection<List<String>> keys) {
+        List<Object> parameters = new ArrayList<>(keys.size() * fields.size());
+        keys.forEach(parameters::addAll);
+        return parameters;
+    }
+}
@@ -1,21 +1,76 @@
 package br.com.erudio.repository;
 
+import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface PersonRepository extends JpaRepository<Person, Long> {
 
+    // Read-only list queries select straight into PersonDTO, no managed entity is loaded
+    String SELECT_DTO = "SELECT new br.com.erudio.data.dto.v1.PersonDTO(p.id, p.firstName, p.lastName, p.address, p.gender, p.enabled) FROM Person p";
+
     @Modifying(clearAutomatically = true)
     @Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
     void disablePerson(@Param("id") Long id);
 
-    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT ('%',:firstName,'%'))")
-    Page<Person> findPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+    @Query(value = SELECT_DTO, countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<PersonDTO> findPeople(Pageable pageable);
+
+    // firstName is searched through the ngram FULLTEXT index (ft_person_first_name), see FullTextFunctionContributor
+    @Query(value = SELECT_DTO + " WHERE ngram_match(p.firstName, :firstName) > 0",
+            countQuery = "SELECT COUNT(p) FROM Person p WHERE ngram_match(p.firstName, :firstName) > 0")
+    Page<PersonDTO> findPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    // Scans the table, only for terms shorter than the ngram token size
+    @Query(value = SELECT_DTO + " WHERE LOWER(p.firstName) LIKE LOWER(CONCAT ('%',:firstName,'%'))",
+            countQuery = "SELECT COUNT(p) FROM Person p WHERE LOWER(p.firstName) LIKE LOWER(CONCAT ('%',:firstName,'%'))")
+    Page<PersonDTO> findPeopleByNameScan(@Param("firstName") String firstName, Pageable pageable);
+
+    // Slices fetch size + 1 rows to know if there is a next one and never run the count query
+
+    @Query(SELECT_DTO)
+    Slice<PersonDTO> findPeopleSlice(Pageable pageable);
+
+    @Query(SELECT_DTO + " WHERE ngram_match(p.firstName, :firstName) > 0")
+    Slice<PersonDTO> findPeopleByNameSlice(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query(SELECT_DTO + " WHERE LOWER(p.firstName) LIKE LOWER(CONCAT ('%',:firstName,'%'))")
+    Slice<PersonDTO> findPeopleByNameScanSlice(@Param("firstName") String firstName, Pageable pageable);
+
+    // Read inside a transaction and closed by the caller. Connector/J only streams a result set row by
+    // row when the fetch size is Integer.MIN_VALUE, any other value buffers the whole page
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SELECT_DTO)
+    Stream<PersonDTO> streamPeople(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SELECT_DTO + " WHERE ngram_match(p.firstName, :firstName) > 0")
+    Stream<PersonDTO> streamPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SELECT_DTO + " WHERE LOWER(p.firstName) LIKE LOWER(CONCAT ('%',:firstName,'%'))")
+    Stream<PersonDTO> streamPeopleByNameScan(@Param("firstName") String firstName, Pageable pageable);
+
+    // Keyset pagination: the pageable only limits the rows, the seek predicates use idx_person_first_name_id
+
+    @Query(SELECT_DTO)
+    List<PersonDTO> findFirstPeople(Pageable pageable);
 
+    @Query(SELECT_DTO + " WHERE p.firstName > :firstName OR (p.firstName = :firstName AND p.id > :id) ORDER BY p.firstName ASC, p.id ASC")
+    List<PersonDTO> findPeopleAfterAscending(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
 
+    @Query(SELECT_DTO + " WHERE p.firstName < :firstName OR (p.firstName = :firstName AND p.id < :id) ORDER BY p.firstName DESC, p.id DESC")
+    List<PersonDTO> findPeopleAfterDescending(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,18 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.data.dto.v1.StoredFileDTO;
+import br.com.erudio.model.StoredFile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    long countBySha256(String sha256);
+
+    // Listing reads the index only, the storage directory is never walked
+    @Query(value = "SELECT new br.com.erudio.data.dto.v1.StoredFileDTO(f.name, f.size, f.contentType, f.sha256, f.storedAt) FROM StoredFile f",
+            countQuery = "SELECT COUNT(f) FROM StoredFile f")
+    Page<StoredFileDTO> findFiles(Pageable pageable);
+}
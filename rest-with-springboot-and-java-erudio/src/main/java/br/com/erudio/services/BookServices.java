@@ -1,17 +1,26 @@
 package br.com.erudio.services;
 
+import br.com.erudio.cache.EntityCaches;
+import br.com.erudio.config.CacheConfig;
 import br.com.erudio.controllers.BookController;
 import br.com.erudio.controllers.BookController;
 import br.com.erudio.data.dto.v1.BookDTO;
 import br.com.erudio.data.dto.v1.BookDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.hateoas.BookLinks;
+import br.com.erudio.hateoas.LinkTemplateCache;
 import br.com.erudio.model.Book;
+import br.com.erudio.pagination.KeysetCursor;
+import br.com.erudio.pagination.KeysetPage;
 import br.com.erudio.repository.BookRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
@@ -23,8 +32,6 @@ import java.util.List;
 
 import static br.com.erudio.mapper.ObjectMapper.parseListObjects;
 import static br.com.erudio.mapper.ObjectMapper.parseObjects;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
 public class BookServices {
@@ -37,14 +44,19 @@ public class BookServices {
     @Autowired
     PagedResourcesAssembler<BookDTO> assembler;
 
+    @Autowired
+    EntityCaches caches;
+
+    private final LinkTemplateCache<BookLinks> linkTemplates = new LinkTemplateCache<>(BookController.class, BookLinks::resolve);
+
     public PagedModel<EntityModel<BookDTO>> findAll(Pageable pegeable) {
         logger.info("Finding all Book!");
 
-        var books = repository.findAll(pegeable);
+        var books = repository.findBooks(pegeable);
 
-        var booksWithLinks = books.map(book -> {
-            var dto = parseObjects(book, BookDTO.class);
-            addHateosLinks(dto);
+        var links = linkTemplates.current();
+        var booksWithLinks = books.map(dto -> {
+            addHateosLinks(dto, links);
             return dto;
         });
 
@@ -54,13 +66,42 @@ public class BookServices {
         return assembler.toModel(booksWithLinks, findAllLink);
     }
 
+    public PagedModel<EntityModel<BookDTO>> findAllByCursor(String after, int size, Direction direction) {
+        logger.info("Finding all Book by cursor!");
+
+        size = KeysetPage.validateSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<BookDTO> books;
+        if (after == null || after.isBlank()) {
+            books = repository.findFirstBooks(PageRequest.of(0, size + 1, Sort.by(direction, "title", "id")));
+        } else {
+            var cursor = KeysetCursor.decode(after);
+            books = direction.isAscending()
+                    ? repository.findBooksAfterAscending(cursor.key(), cursor.id(), limit)
+                    : repository.findBooksAfterDescending(cursor.key(), cursor.id(), limit);
+        }
+
+        var links = linkTemplates.current();
+        return new KeysetPage<>(books, size).toModel(
+                dto -> {
+                    addHateosLinks(dto, links);
+                    return dto;
+                },
+                book -> new KeysetCursor(book.getTitle(), book.getId()),
+                WebMvcLinkBuilder.linkTo(BookController.class).slash("cursor"),
+                after,
+                direction);
+    }
+
        public BookDTO findById(Long id) {
         logger.info("Finding one Book!");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        // The cached snapshot has no links, each caller gets its own copy to add them to
+        var cached = caches.get(CacheConfig.BOOKS, id, BookDTO.class, () -> parseObjects(repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!")), BookDTO.class));
 
-        var dto =  parseObjects(entity, BookDTO.class);
+        var dto = parseObjects(cached, BookDTO.class);
         addHateosLinks(dto);
         return dto;
     };
@@ -84,6 +125,7 @@ public class BookServices {
         Book entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         repository.delete(entity);
+        caches.evictAfterCommit(CacheConfig.BOOKS, id);
 
     };
 
@@ -103,19 +145,24 @@ public class BookServices {
         entity.setTitle(book.getTitle());
 
         var dto = parseObjects(repository.save(entity), BookDTO.class);
+        caches.evictAfterCommit(CacheConfig.BOOKS, dto.getId());
         addHateosLinks(dto);
         return dto;
     }
 
     private void addHateosLinks(BookDTO dto) {
-        dto.add(linkTo(methodOn(BookController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        addHateosLinks(dto, linkTemplates.current());
+    }
+
+    private void addHateosLinks(BookDTO dto, BookLinks links) {
+        dto.add(links.self(dto.getId()));
 
-        dto.add(linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
+        dto.add(links.findAll());
 
-        dto.add(linkTo(methodOn(BookController.class).create(dto)).withRel("create").withType("POST"));
+        dto.add(links.create());
 
-        dto.add(linkTo(methodOn(BookController.class).update(dto)).withRel("update").withType("PUT"));
+        dto.add(links.update());
 
-        dto.add(linkTo(methodOn(BookController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(links.delete(dto.getId()));
     };
 }
@@ -0,0 +1,142 @@
+package br.com.erudio.services;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exception.FileNotFoundException;
+import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repository.StoredFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps each distinct content once, under objects/ab/cd/abcd...: the SHA-256 is computed while the upload
+ * streams into a temp file, and a content already stored costs only a row in stored_files, which maps
+ * names to contents. Blobs are never rewritten, so a concurrent upload under the same name only moves
+ * the name, and a blob no name points to any more is deleted.
+ */
+@Component
+public class ContentAddressedStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressedStorage.class);
+
+    // Serialises the exists/move/index and count/delete steps per content within this instance. Locks and
+    // not monitors: uploads store on virtual threads, which a monitor held across file and JDBC calls pins
+    private static final int LOCK_STRIPES = 64;
+
+    private final StoredFileRepository repository;
+    private final Path objects;
+    private final Path temp;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ContentAddressedStorage(FileStorageConfig fileStorageConfig, StoredFileRepository repository) {
+        this.repository = repository;
+        Path root = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        this.objects = root.resolve("objects");
+        // Same file system as the objects, so moving a finished upload into place is a rename
+        this.temp = root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+        try {
+            Files.createDirectories(objects);
+            Files.createDirectories(temp);
+        } catch (IOException e) {
+            logger.error("Could not create the directory where files will be stored!");
+            throw new FileStorageException("Could not create the directory where files will be stored!", e);
+        }
+    }
+
+    public StoredFile store(String name, String contentType, ThrowingConsumer<OutputStream> writer) throws Exception {
+        Path upload = Files.createTempFile(temp, "upload", ".part");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream outputStream = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(upload)), digest)) {
+                writer.acceptWithException(outputStream);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            long size = Files.size(upload);
+
+            StoredFile previous;
+            StoredFile stored = new StoredFile(name, sha256, size, contentType, new Date());
+            ReentrantLock lock = lockFor(sha256);
+            lock.lock();
+            try {
+                Path blob = blobPath(sha256);
+                if (Files.exists(blob)) {
+                    logger.info("Content of " + name + " is already stored");
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(upload, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                previous = repository.findById(name).orElse(null);
+                repository.save(stored);
+            } finally {
+                lock.unlock();
+            }
+
+            if (previous != null && !previous.getSha256().equals(sha256)) collect(previous.getSha256());
+            return stored;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    public StoredFile find(String name) {
+        return repository.findById(name)
+                .orElseThrow(() -> new FileNotFoundException("File not Found " + name));
+    }
+
+    public Path load(String name) {
+        return load(find(name));
+    }
+
+    // For callers that already read the row
+    public Path load(StoredFile stored) {
+        Path blob = blobPath(stored.getSha256());
+        if (!Files.isRegularFile(blob)) {
+            logger.error("Content of " + stored.getName() + " is missing from the storage");
+            throw new FileNotFoundException("File not Found " + stored.getName());
+        }
+        return blob;
+    }
+
+    // Drops the name, and its content once no other name points to it
+    public void delete(String name) throws IOException {
+        StoredFile stored = repository.findById(name).orElse(null);
+        if (stored == null) return;
+        repository.delete(stored);
+        collect(stored.getSha256());
+    }
+
+    private void collect(String sha256) throws IOException {
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            if (repository.countBySha256(sha256) == 0) Files.deleteIfExists(blobPath(sha256));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Two levels of fan out keep any directory to a few thousand entries
+    private Path blobPath(String sha256) {
+        return objects.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private ReentrantLock lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+}
@@ -1,34 +1,81 @@
 package br.com.erudio.services;
 
+import br.com.erudio.cache.HotFileCache;
 import br.com.erudio.config.FileStorageConfig;
 import br.com.erudio.controllers.FileController;
 import br.com.erudio.exception.FileNotFoundException;
 import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.data.dto.v1.StoredFileDTO;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.pagination.SortDirections;
+import br.com.erudio.repository.StoredFileRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
 
 @Service
 public class FileStorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
+    // Left in the upload directory once the files stored before the sharded layout are moved out of it
+    private static final String LEGACY_MIGRATED_MARKER = ".legacy-files-migrated";
+
     private final Path fileStorageLocation;
 
+    private final boolean contentAddressed;
+
+    @Autowired
+    private ContentAddressedStorage contentStorage;
+
+    @Autowired
+    private StoredFileRepository storedFiles;
+
+    @Autowired
+    private PagedResourcesAssembler<StoredFileDTO> assembler;
+
+    @Autowired
+    private HotFileCache hotFiles;
+
     @Autowired
     public FileStorageService(FileStorageConfig fileStorageConfig) {
         Path path = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
-
+        this.contentAddressed = fileStorageConfig.getStorageMode() == FileStorageConfig.StorageMode.CONTENT_ADDRESSED;
 
         this.fileStorageLocation = path;
         try {
@@ -42,38 +89,285 @@ public class FileStorageService {
 
     public String storeFile(MultipartFile file) {
         String fileName = StringUtils.cleanPath(file.getOriginalFilename());
+        return storeFile(fileName, file.getContentType(), outputStream -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                inputStream.transferTo(outputStream);
+            }
+        });
+    }
+
+    public String storeFile(String fileName, ThrowingConsumer<OutputStream> writer) {
+        return storeFile(fileName, null, writer);
+    }
+
+    // Written under a temporary name and moved into place once complete, downloads never see a partial file.
+    // Every file gets a row in stored_files, which is what the listing reads
+    public String storeFile(String fileName, String contentType, ThrowingConsumer<OutputStream> writer) {
+        fileName = StringUtils.cleanPath(fileName);
+        if (fileName.contains("..") || !isSingleName(fileName)) {
+            logger.error("Sorry! File Name Contains Invalid path Sequence " + fileName);
+            throw new FileStorageException("Sorry! File Name Contains Invalid path Sequence " + fileName);
+        }
+        if (contentType == null || contentType.isBlank()) {
+            contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        }
 
         try {
-            if (fileName.contains("..")) {
-                logger.error("Sorry! File Name Contains Invalid path Sequence " + fileName);
-                throw new FileStorageException("Sorry! File Name Contains Invalid path Sequence " + fileName);
+            if (contentAddressed) {
+                logger.info("Writing file in the content store");
+                contentStorage.store(fileName, contentType, writer);
+            } else {
+                logger.info("Writing file in Disk");
+                storePlain(fileName, contentType, writer);
             }
-
-            logger.info("Saving file in Disk");
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
             return fileName;
-
         } catch (Exception e) {
             logger.error("Could not Store file " + fileName + ". Please try Again");
             throw new FileStorageException("Could not Store file " + fileName + ". Please try Again", e);
+        } finally {
+            // Also after a failure, part of the replacement may already be in place
+            hotFiles.invalidate(fileName);
+        }
+    }
+
+    // Either the cached copy of a small file, or the path of a larger one with its media type
+    public record Download(HotFileCache.HotFile hotFile, Path file, MediaType contentType) {}
+
+    private record Resolved(Path file, StoredFile stored) {}
+
+    /**
+     * Returns the file from memory when it is small enough to be cached, and otherwise the path it was
+     * resolved to, so a download looks the name up once. The media type is the one stored_files keeps,
+     * worked out from the name only for files that have no row.
+     */
+    public Download loadDownload(String fileName) {
+        var cached = hotFiles.get(fileName);
+        if (cached != null) return new Download(cached, null, null);
+
+        long stamp = hotFiles.generation();
+        Resolved resolved = resolve(fileName, true);
+        MediaType contentType = contentType(fileName, resolved.stored());
+        try {
+            var loaded = hotFiles.load(fileName, resolved.file(), contentType, stamp);
+            return loaded != null ? new Download(loaded, null, null) : new Download(null, resolved.file(), contentType);
+        } catch (IOException e) {
+            logger.error("File not Found " + fileName);
+            throw new FileNotFoundException("File not Found " + fileName, e);
         }
     }
 
     public Resource loadFileAsResource(String fileName) {
+        return new FileSystemResource(loadFilePath(fileName));
+    }
+
+    public Path loadFilePath(String fileName) {
+        return resolve(fileName, false).file();
+    }
+
+    // The row is read in content addressed mode, which needs it anyway, and in plain mode only when asked for
+    private Resolved resolve(String fileName, boolean withRow) {
+        // The store's own objects/, tmp/ and files/ directories are never reachable by name
+        if (!isSingleName(fileName)) {
+            logger.error("File not Found " + fileName);
+            throw new FileNotFoundException("File not Found " + fileName);
+        }
+        StoredFile stored = contentAddressed || withRow ? storedFiles.findById(fileName).orElse(null) : null;
+        if (contentAddressed && stored != null) {
+            try {
+                return new Resolved(contentStorage.load(stored), stored);
+            } catch (FileNotFoundException e) {
+                // Stored before the content store was turned on, still in the plain layout
+                logger.debug("File " + fileName + " is not in the content store, looking in the upload directory");
+            }
+        }
+        return new Resolved(plainPath(fileName), stored);
+    }
+
+    private Path plainPath(String fileName) {
+        Path filePath = shardedPath(fileName);
+        if (filePath.startsWith(this.fileStorageLocation) && Files.isRegularFile(filePath)) return filePath;
+
+        // Files stored before the sharded layout stay in the upload directory itself until migrateLegacyFiles moves them
+        filePath = this.fileStorageLocation.resolve(fileName).normalize();
+        if (!filePath.startsWith(this.fileStorageLocation) || !Files.isRegularFile(filePath)) {
+            logger.error("File not Found " + fileName);
+            throw new FileNotFoundException("File not Found " + fileName);
+        }
+        return filePath;
+    }
+
+    // Removes the file and its index row, a file that is already gone is left as is
+    public void deleteFile(String fileName) {
+        fileName = StringUtils.cleanPath(fileName);
+        if (!isSingleName(fileName)) return;
         try {
-            logger.info("Saving file in Disk");
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
+            if (contentAddressed) {
+                contentStorage.delete(fileName);
             } else {
-                throw new FileNotFoundException("File not Found " + fileName);
+                Path filePath = shardedPath(fileName);
+                if (filePath.startsWith(this.fileStorageLocation)) Files.deleteIfExists(filePath);
+                storedFiles.deleteById(fileName);
             }
-        } catch (Exception e) {
-            logger.error("File not Found " + fileName);
-            throw new FileNotFoundException("File not Found " + fileName, e);
+            // Not migrated yet, loadFilePath would still find it there
+            Path legacyPath = this.fileStorageLocation.resolve(fileName).normalize();
+            if (legacyPath.startsWith(this.fileStorageLocation) && Files.isRegularFile(legacyPath)) Files.delete(legacyPath);
+        } catch (IOException e) {
+            logger.error("Could not delete file " + fileName);
+            throw new FileStorageException("Could not delete file " + fileName, e);
+        } finally {
+            hotFiles.invalidate(fileName);
         }
     }
-}
 
+    public PagedModel<EntityModel<StoredFileDTO>> listFiles(Pageable pageable) {
+        logger.info("Listing stored files!");
+
+        var downloadBaseUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .toUriString();
+        var files = storedFiles.findFiles(pageable).map(dto ->
+                dto.add(Link.of(downloadBaseUri + UriUtils.encodePath(dto.getFileName(), StandardCharsets.UTF_8), "download")));
+
+        Link findAllLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(FileController.class)
+                .listFiles(pageable.getPageNumber(), pageable.getPageSize(), SortDirections.of(pageable))).withSelfRel();
+
+        return assembler.toModel(files, findAllLink);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLegacyFileMigration() {
+        // Once done, later starts don't even list the upload directory
+        if (Files.exists(this.fileStorageLocation.resolve(LEGACY_MIGRATED_MARKER))) return;
+        var thread = new Thread(this::migrateLegacyFiles, "legacy-file-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Moves the files stored in the upload directory itself before the sharded layout into the layout in
+     * use, with their row in stored_files, so the listing shows them and there is one layout to delete
+     * from. Leaves a marker once every file is moved; after a failure the next start tries again.
+     */
+    public void migrateLegacyFiles() {
+        Path marker = this.fileStorageLocation.resolve(LEGACY_MIGRATED_MARKER);
+        if (Files.exists(marker)) return;
+
+        int migrated = 0;
+        int failed = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.fileStorageLocation)) {
+            for (Path file : entries) {
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(".") || !Files.isRegularFile(file)) continue;
+                try {
+                    migrateLegacyFile(fileName, file);
+                    migrated++;
+                } catch (Exception e) {
+                    failed++;
+                    logger.warn("Could not migrate file " + fileName, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list the upload directory for files to migrate", e);
+            return;
+        }
+
+        if (failed > 0) {
+            logger.warn(failed + " files stay in the legacy layout until the next start");
+            return;
+        }
+        try {
+            Files.createFile(marker);
+        } catch (IOException e) {
+            logger.warn("Could not mark the legacy files as migrated", e);
+        }
+        logger.info("Migrated " + migrated + " files stored before the sharded layout");
+    }
+
+    private void migrateLegacyFile(String fileName, Path file) throws Exception {
+        try {
+            // A newer copy under the same name was always served instead, this one was unreachable
+            boolean shadowed = contentAddressed ? storedFiles.existsById(fileName) : Files.exists(shardedPath(fileName));
+            if (shadowed) {
+                Files.delete(file);
+                return;
+            }
+
+            String contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+            if (contentAddressed) {
+                contentStorage.store(fileName, contentType, outputStream -> Files.copy(file, outputStream));
+                Files.delete(file);
+                return;
+            }
+
+            // Same file system, a rename instead of a copy
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                inputStream.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            }
+            long size = Files.size(file);
+            Date storedAt = new Date(Files.getLastModifiedTime(file).toMillis());
+            Path target = shardedPath(fileName);
+            Files.createDirectories(target.getParent());
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            storedFiles.save(new StoredFile(fileName, HexFormat.of().formatHex(digest.digest()), size, contentType, storedAt));
+        } finally {
+            hotFiles.invalidate(fileName);
+        }
+    }
+
+    private void storePlain(String fileName, String contentType, ThrowingConsumer<OutputStream> writer) throws Exception {
+        Path targetLocation = shardedPath(fileName);
+        if (!targetLocation.startsWith(this.fileStorageLocation)) {
+            throw new FileStorageException("Sorry! File Name Contains Invalid path Sequence " + fileName);
+        }
+        Files.createDirectories(targetLocation.getParent());
+
+        // A temp name of its own, concurrent uploads of the same name don't write into each other
+        Path partialLocation = Files.createTempFile(targetLocation.getParent(), ".upload", ".part");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream outputStream = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(partialLocation)), digest)) {
+                writer.acceptWithException(outputStream);
+            }
+            long size = Files.size(partialLocation);
+            Files.move(partialLocation, targetLocation, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            storedFiles.save(new StoredFile(fileName, HexFormat.of().formatHex(digest.digest()), size, contentType, new Date()));
+        } finally {
+            try {
+                Files.deleteIfExists(partialLocation);
+            } catch (IOException ignored) {
+                logger.warn("Could not delete partial file " + partialLocation);
+            }
+        }
+    }
+
+    private static MediaType contentType(String fileName, StoredFile stored) {
+        if (stored != null && stored.getContentType() != null) {
+            try {
+                return MediaType.parseMediaType(stored.getContentType());
+            } catch (InvalidMediaTypeException e) {
+                // Uploads keep whatever type the client sent
+                logger.debug("Invalid content type stored for " + fileName);
+            }
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    // A file name and nothing else, no directory in front of it
+    private static boolean isSingleName(String fileName) {
+        return !fileName.isEmpty() && !fileName.equals(".") && !fileName.equals("..")
+                && fileName.indexOf('/') < 0 && fileName.indexOf('\\') < 0;
+    }
+
+    // files/ab/cd/<name>, ab and cd taken from the SHA-256 of the name, so no directory grows past a few thousand entries
+    private Path shardedPath(String fileName) {
+        try {
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(fileName.getBytes(StandardCharsets.UTF_8)));
+            return this.fileStorageLocation.resolve("files").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4))
+                    .resolve(fileName).normalize();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
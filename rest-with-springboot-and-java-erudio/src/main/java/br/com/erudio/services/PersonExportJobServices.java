@@ -0,0 +1,106 @@
+package br.com.erudio.services;
+
+import br.com.erudio.data.dto.v1.ExportJobDTO;
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.jobs.ExportJob;
+import br.com.erudio.jobs.JobRunner;
+import br.com.erudio.jobs.JobStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Exports people to a file in the upload directory on a small worker pool of its own, so long exports
+ * neither hold a request thread nor compete with the web threads. The file is then served by
+ * /api/file/v1/downloadFile until the job is purged, files of cancelled and failed jobs are deleted
+ * right away.
+ */
+@Service
+public class PersonExportJobServices {
+
+    private Logger logger = LoggerFactory.getLogger(PersonExportJobServices.class.getName());
+
+    @Autowired
+    PersonServices personServices;
+
+    @Autowired
+    FileStorageService fileStorage;
+
+    @Value("${jobs.export.workers:2}")
+    int workers;
+
+    @Value("${jobs.export.queue-capacity:10}")
+    int queueCapacity;
+
+    @Value("${jobs.retention:1h}")
+    Duration retention;
+
+    private JobRunner<ExportJob> jobs;
+
+    @PostConstruct
+    void start() {
+        jobs = new JobRunner<>("export-job", workers, queueCapacity, retention,
+                export -> fileStorage.deleteFile(export.getFileName()));
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.shutdown();
+    }
+
+    public ExportJobDTO create(String format, String firstName, Sort sort) {
+        logger.info("Creating a People export job!");
+
+        String mediaType = switch (format == null ? "" : format.toLowerCase()) {
+            case "csv" -> MediaTypes.APPLICATION_CSV_VALUE;
+            case "xlsx" -> MediaTypes.APPLICATION_XLSX_VALUE;
+            default -> throw new BadRequestException("Invalid File Format!");
+        };
+
+        var downloadBaseUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/file/v1/downloadFile/")
+                .toUriString();
+
+        var job = jobs.submit(new ExportJob(format.toLowerCase(), downloadBaseUri), export ->
+                fileStorage.storeFile(export.getFileName(), outputStream ->
+                        personServices.exportAll(firstName, sort, mediaType, outputStream, person -> {
+                            export.checkCancelled();
+                            export.rowProcessed();
+                        })));
+        return toDTO(job);
+    }
+
+    public ExportJobDTO findById(String id) {
+        return toDTO(jobs.find(id));
+    }
+
+    public ExportJobDTO cancel(String id) {
+        logger.info("Cancelling a People export job!");
+        return toDTO(jobs.cancel(id));
+    }
+
+    private static ExportJobDTO toDTO(ExportJob job) {
+        var dto = new ExportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setFormat(job.getFormat());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setFileName(job.getFileName());
+        dto.setError(job.getError());
+        dto.setCreatedAt(Date.from(job.getCreatedAt()));
+        if (job.getFinishedAt() != null) dto.setFinishedAt(Date.from(job.getFinishedAt()));
+        // Only a finished file can be downloaded
+        if (job.getStatus() == JobStatus.COMPLETED) dto.setFileDownloadUri(job.getFileDownloadUri());
+        return dto;
+    }
+}
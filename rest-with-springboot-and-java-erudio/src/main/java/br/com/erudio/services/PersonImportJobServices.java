@@ -0,0 +1,215 @@
+package br.com.erudio.services;
+
+import br.com.erudio.config.CacheConfig;
+import br.com.erudio.cache.EntityCaches;
+import br.com.erudio.config.ImportPipelineConfig;
+import br.com.erudio.data.dto.v1.ImportJobDTO;
+import br.com.erudio.data.dto.v1.ImportStageDTO;
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.file.importer.ImportMode;
+import br.com.erudio.file.importer.ImportPipeline;
+import br.com.erudio.file.importer.ImportStageStats;
+import br.com.erudio.file.importer.PersonRowValidator;
+import br.com.erudio.file.importer.contract.FileImporter;
+import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.jobs.ImportJob;
+import br.com.erudio.jobs.JobRunner;
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.erudio.mapper.ObjectMapper.parseObjects;
+
+/**
+ * Imports people files in the background: the upload is kept in a temp file and a worker runs it
+ * through the parse, validate and map, batched insert stages of an ImportPipeline, publishing its
+ * progress on the job.
+ */
+@Service
+public class PersonImportJobServices {
+
+    private Logger logger = LoggerFactory.getLogger(PersonImportJobServices.class.getName());
+
+    @Autowired
+    FileImporterFactory importer;
+
+    @Autowired
+    PersonBatchWriter batchWriter;
+
+    @Autowired
+    EntityCaches caches;
+
+    @Autowired
+    ImportPipelineConfig pipelineConfig;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Value("${file.import-chunk-size:1000}")
+    int importChunkSize;
+
+    @Value("${jobs.import.workers:2}")
+    int workers;
+
+    @Value("${jobs.import.queue-capacity:10}")
+    int queueCapacity;
+
+    @Value("${jobs.retention:1h}")
+    Duration retention;
+
+    private JobRunner<ImportJob> jobs;
+
+    @PostConstruct
+    void start() {
+        // Also removes the upload of a job cancelled before it started, importFile never sees it
+        jobs = new JobRunner<>("import-job", workers, queueCapacity, retention, job -> deleteQuietly(job.getUpload()));
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.shutdown();
+    }
+
+    public ImportJobDTO create(MultipartFile file, ImportMode mode) {
+        logger.info("Creating a People import job!");
+
+        if (file.isEmpty()) throw new BadRequestException("Please set a Valid File!");
+
+        String fileName = Optional.ofNullable(file.getOriginalFilename())
+                .orElseThrow(() -> new BadRequestException("File Name cannot be null"));
+
+        FileImporter importer;
+        try {
+            importer = this.importer.getImporter(fileName);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileStorageException("Error Processing the File!", e);
+        }
+
+        // The multipart temp file is removed when the request ends, the job works on its own copy
+        Path upload;
+        try {
+            upload = Files.createTempFile("people-import-job", fileName.substring(fileName.lastIndexOf('.')));
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Error Processing the File!", e);
+        }
+
+        try {
+            return toDTO(jobs.submit(new ImportJob(fileName, mode, upload), job -> importFile(job, importer, job.getUpload())));
+        } catch (RuntimeException e) {
+            deleteQuietly(upload);
+            throw e;
+        }
+    }
+
+    public ImportJobDTO findById(String id) {
+        return toDTO(jobs.find(id));
+    }
+
+    public ImportJobDTO cancel(String id) {
+        logger.info("Cancelling a People import job!");
+        return toDTO(jobs.cancel(id));
+    }
+
+    private void importFile(ImportJob job, FileImporter importer, Path upload) {
+        var pipeline = new ImportPipeline<PersonDTO, Person>(pipelineConfig, importChunkSize,
+                row -> PersonRowValidator.isValid(row) ? parseObjects(row, Person.class) : null,
+                // Each chunk commits on its own, a cancelled or failed job keeps the chunks already imported
+                chunk -> writeChunk(job, chunk),
+                // Upserts of one key stay on one writer, in file order, so the last row wins across chunks
+                job.getMode() == ImportMode.UPSERT ? batchWriter::naturalKeyOf : null,
+                job, job::checkCancelled);
+        job.setStages(pipeline.getStages());
+
+        try (InputStream inputStream = Files.newInputStream(upload)) {
+            pipeline.run(sink -> importer.importFile(inputStream, sink));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileStorageException("Error Processing the File!", e);
+        } finally {
+            deleteQuietly(upload);
+            record(pipeline.getStages());
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<Person> chunk) {
+        if (job.getMode() == ImportMode.UPSERT) {
+            var result = batchWriter.upsertAll(chunk);
+            result.inserted().forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+            result.updated().forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+            job.rowsUpdated(result.updated().size());
+            return;
+        }
+        batchWriter.persistAll(chunk).forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+    }
+
+    // Busy and blocked time per stage, the stage with the most busy time is the one holding the import back
+    private void record(List<ImportStageStats> stages) {
+        for (ImportStageStats stage : stages) {
+            registry.timer("import.pipeline.busy", "stage", stage.getName())
+                    .record(stage.getBusyNanos(), TimeUnit.NANOSECONDS);
+            registry.timer("import.pipeline.waiting", "stage", stage.getName(), "on", "input")
+                    .record(stage.getInputWaitNanos(), TimeUnit.NANOSECONDS);
+            registry.timer("import.pipeline.waiting", "stage", stage.getName(), "on", "output")
+                    .record(stage.getOutputWaitNanos(), TimeUnit.NANOSECONDS);
+            registry.counter("import.pipeline.rows", "stage", stage.getName()).increment(stage.getItems());
+        }
+    }
+
+    private void deleteQuietly(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file " + upload);
+        }
+    }
+
+    private static ImportJobDTO toDTO(ImportJob job) {
+        var dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setFileName(job.getFileName());
+        dto.setMode(job.getMode().name());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setImportedRows(job.getImportedRows());
+        dto.setUpdatedRows(job.getUpdatedRows());
+        dto.setErrorRows(job.getErrorRows());
+        dto.setRowsPerSecond(job.getRowsPerSecond());
+        dto.setStages(job.getStages().stream()
+                .map(stage -> new ImportStageDTO(stage.getName(), stage.getThreads(), stage.getItems(),
+                        TimeUnit.NANOSECONDS.toMillis(stage.getBusyNanos()),
+                        TimeUnit.NANOSECONDS.toMillis(stage.getInputWaitNanos()),
+                        TimeUnit.NANOSECONDS.toMillis(stage.getOutputWaitNanos())))
+                .toList());
+        dto.setError(job.getError());
+        dto.setCreatedAt(Date.from(job.getCreatedAt()));
+        if (job.getFinishedAt() != null) dto.setFinishedAt(Date.from(job.getFinishedAt()));
+        return dto;
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.erudio.services;
 
+import br.com.erudio.cache.EntityCaches;
+import br.com.erudio.config.CacheConfig;
 import br.com.erudio.controllers.PersonController;
+import br.com.erudio.data.dto.v1.ImportSummaryDTO;
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.data.dto.v2.PersonDTOv2;
 import br.com.erudio.exception.BadRequestException;
@@ -12,40 +15,67 @@ import static br.com.erudio.mapper.ObjectMapper.parseObjects;
 import br.com.erudio.file.exporter.MediaTypes;
 import br.com.erudio.file.exporter.contract.FileExporter;
 import br.com.erudio.file.exporter.factory.FileExporterFactory;
+import br.com.erudio.file.importer.ChunkedConsumer;
+import br.com.erudio.file.importer.ImportMode;
 import br.com.erudio.file.importer.contract.FileImporter;
 import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.hateoas.LinkTemplateCache;
+import br.com.erudio.hateoas.PersonLinks;
 import br.com.erudio.mapper.custom.PersonMapper;
 import br.com.erudio.model.Person;
+import br.com.erudio.pagination.CachedCount;
+import br.com.erudio.pagination.KeysetCursor;
+import br.com.erudio.pagination.KeysetPage;
+import br.com.erudio.pagination.SortDirections;
+import br.com.erudio.repository.PersonBatchWriter;
 import br.com.erudio.repository.PersonRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import org.springframework.beans.factory.annotation.Value;
 
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class PersonServices {
 
     private Logger logger = LoggerFactory.getLogger(PersonServices.class.getName());
 
+    // Must match the ngram_token_size of the MySQL server, shorter terms cannot use the FULLTEXT index
+    private static final int NGRAM_TOKEN_SIZE = 2;
+    private static final Pattern FULL_TEXT_OPERATORS = Pattern.compile("[+\\-<>()~*\"@]");
+
     @Autowired
     PersonRepository repository;
 
@@ -61,10 +91,29 @@ public class PersonServices {
     @Autowired
     PagedResourcesAssembler<PersonDTO> assembler;
 
+    @Autowired
+    SlicedResourcesAssembler<PersonDTO> slicedAssembler;
+
+    @Autowired
+    EntityCaches caches;
+
+    @Autowired
+    PersonBatchWriter batchWriter;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${file.import-chunk-size:1000}")
+    int importChunkSize;
+
+    private final CachedCount peopleCount = new CachedCount(Duration.ofMinutes(1), () -> repository.count());
+
+    private final LinkTemplateCache<PersonLinks> linkTemplates = new LinkTemplateCache<>(PersonController.class, PersonLinks::resolve);
+
     public PagedModel<EntityModel<PersonDTO>> findAll(Pageable pegeable) {
         logger.info("Finding all People!");
 
-        var people = repository.findAll(pegeable);
+        var people = repository.findPeople(pegeable);
 
         return buildPageModel(pegeable, people);
     }
@@ -72,34 +121,108 @@ public class PersonServices {
     public PagedModel<EntityModel<PersonDTO>> findByName(String fistName, Pageable pegeable) {
         logger.info("Finding People by name!");
 
-        var people = repository.findPeopleByName(fistName, pegeable);
+        var term = toSearchTerm(fistName);
+        var people = term.length() < NGRAM_TOKEN_SIZE
+                ? repository.findPeopleByNameScan(term, pegeable)
+                : repository.findPeopleByName(toNgramPhrase(term), pegeable);
 
         return buildPageModel(pegeable, people);
     }
 
+    public SlicedModel<EntityModel<PersonDTO>> findAllSlice(Pageable pegeable, boolean estimateTotal) {
+        logger.info("Finding a Slice of People!");
+
+        var people = repository.findPeopleSlice(pegeable);
+
+        Link findAllLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonController.class)
+                .findAllSlice(pegeable.getPageNumber(), pegeable.getPageSize(), SortDirections.of(pegeable), estimateTotal)).withSelfRel();
+        return buildSliceModel(people, findAllLink);
+    }
+
+    public SlicedModel<EntityModel<PersonDTO>> findByNameSlice(String fistName, Pageable pegeable) {
+        logger.info("Finding a Slice of People by name!");
+
+        var term = toSearchTerm(fistName);
+        var people = term.length() < NGRAM_TOKEN_SIZE
+                ? repository.findPeopleByNameScanSlice(term, pegeable)
+                : repository.findPeopleByNameSlice(toNgramPhrase(term), pegeable);
+
+        // Next and prev keep the name filter, infinite scroll stays on this endpoint
+        Link findByNameLink = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(PersonController.class)
+                .findByNameSlice(fistName, pegeable.getPageNumber(), pegeable.getPageSize(), SortDirections.of(pegeable))).withSelfRel();
+        return buildSliceModel(people, findByNameLink);
+    }
+
+    public long estimatedPeopleCount() {
+        return peopleCount.get();
+    }
+
+    public PagedModel<EntityModel<PersonDTO>> findAllByCursor(String after, int size, Direction direction) {
+        logger.info("Finding all People by cursor!");
+
+        size = KeysetPage.validateSize(size);
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<PersonDTO> people;
+        if (after == null || after.isBlank()) {
+            people = repository.findFirstPeople(PageRequest.of(0, size + 1, Sort.by(direction, "firstName", "id")));
+        } else {
+            var cursor = KeysetCursor.decode(after);
+            people = direction.isAscending()
+                    ? repository.findPeopleAfterAscending(cursor.key(), cursor.id(), limit)
+                    : repository.findPeopleAfterDescending(cursor.key(), cursor.id(), limit);
+        }
+
+        var links = linkTemplates.current();
+        return new KeysetPage<>(people, size).toModel(
+                dto -> {
+                    addHateosLinks(dto, links);
+                    return dto;
+                },
+                person -> new KeysetCursor(person.getFirstName(), person.getId()),
+                WebMvcLinkBuilder.linkTo(PersonController.class).slash("cursor"),
+                after,
+                direction);
+    }
+
 
     public PersonDTO findById(Long id) {
         logger.info("Finding one Person!");
 
-        var entity = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+        // The cached snapshot has no links, each caller gets its own copy to add them to
+        var cached = caches.get(CacheConfig.PEOPLE, id, PersonDTO.class, () -> parseObjects(repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!")), PersonDTO.class));
 
-        var dto =  parseObjects(entity, PersonDTO.class);
+        var dto = parseObjects(cached, PersonDTO.class);
         addHateosLinks(dto);
         return dto;
     };
 
-    public Resource exportPage(Pageable pegeable, String acceptHeader) {
+    public StreamingResponseBody exportPage(Pageable pegeable, String acceptHeader) {
         logger.info("Exporting a People page!");
 
-        var people = repository.findAll(pegeable).map(person -> parseObjects(person, PersonDTO.class)).getContent();
+        FileExporter exporter = exporterFor(acceptHeader);
 
-        try {
-            FileExporter exporter = this.exporter.getExporter(acceptHeader);
-            return exporter.exportFile(people);
-        } catch (Exception e) {
-            throw new RuntimeException("Error during file export!", e);
-        }
+        return outputStream -> exportRows(() -> repository.streamPeople(pegeable), exporter, outputStream);
+    }
+
+    public StreamingResponseBody exportAll(String firstName, Sort sort, String acceptHeader) {
+        logger.info("Exporting all People!");
+
+        FileExporter exporter = exporterFor(acceptHeader);
+        var rows = allRows(firstName, sort);
+
+        return outputStream -> exportRows(rows, exporter, outputStream);
+    }
+
+    // Used by export jobs: onRow sees each person before it is written and can throw to stop the export
+    public void exportAll(String firstName, Sort sort, String acceptHeader, OutputStream outputStream, Consumer<PersonDTO> onRow) {
+        logger.info("Exporting all People to a file!");
+
+        FileExporter exporter = exporterFor(acceptHeader);
+        var rows = allRows(firstName, sort);
+
+        exportRows(() -> rows.get().peek(onRow), exporter, outputStream);
     }
 
     public PersonDTO create(PersonDTO person) {
@@ -125,22 +248,79 @@ public class PersonServices {
 
             FileImporter importer = this.importer.getImporter(fileName);
 
-            List<Person> entityes = importer.importFile(inputStream)
+            List<Person> entityes = batchWriter.persistAll(importer.importFile(inputStream)
                     .stream()
-                    .map(dto -> repository.save(parseObjects(dto, Person.class)))
-                    .toList();
+                    .map(dto -> parseObjects(dto, Person.class))
+                    .toList());
+            entityes.forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
 
+            var links = linkTemplates.current();
             return entityes.stream()
                     .map(entity -> {
                     var dto = parseObjects(entity, PersonDTO.class);
-                    addHateosLinks(dto);
+                    addHateosLinks(dto, links);
                     return dto;})
                     .toList();
         } catch (Exception e) {
-            throw new FileStorageException("Error Processing the File!");
+            throw new FileStorageException("Error Processing the File!", e);
         }
     }
 
+    public ImportSummaryDTO massImport(MultipartFile file) {
+        return massImport(file, ImportMode.INSERT);
+    }
+
+    public ImportSummaryDTO massImport(MultipartFile file, ImportMode mode) {
+        if (file.isEmpty()) throw new BadRequestException("Please set a Valid File!");
+
+        String fileName = Optional.ofNullable(file.getOriginalFilename())
+                .orElseThrow(() -> new BadRequestException("File Name cannot be null"));
+
+        try(InputStream inputStream = file.getInputStream()) {
+            return massImport(fileName, inputStream, mode);
+        } catch (IOException e) {
+            throw new FileStorageException("Error Processing the File!", e);
+        }
+    }
+
+    // The stream can be a multipart part still being received, rows are imported as they arrive
+    public ImportSummaryDTO massImport(String fileName, InputStream inputStream, ImportMode mode) {
+        logger.info("Streaming People import from File!");
+
+        try {
+            FileImporter importer = this.importer.getImporter(fileName);
+
+            long start = System.nanoTime();
+            var updated = new AtomicLong();
+            // Each chunk commits on its own, a failure keeps the chunks already imported
+            var chunks = new ChunkedConsumer<PersonDTO>(importChunkSize, chunk ->
+                    updated.addAndGet(writeChunk(chunk.stream().map(dto -> parseObjects(dto, Person.class)).toList(), mode)));
+            importer.importFile(inputStream, chunks);
+            chunks.flush();
+
+            var summary = new ImportSummaryDTO(fileName, chunks.getCount(), chunks.getChunks(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            summary.setUpdatedRows(updated.get());
+            return summary;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileStorageException("Error Processing the File!", e);
+        }
+    }
+
+    // Returns how many rows of the chunk updated an existing person
+    private long writeChunk(List<Person> chunk, ImportMode mode) {
+        if (mode == ImportMode.UPSERT) {
+            var result = batchWriter.upsertAll(chunk);
+            result.inserted().forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+            result.updated().forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+            return result.updated().size();
+        }
+        batchWriter.persistAll(chunk).forEach(entity -> caches.evictAfterCommit(CacheConfig.PEOPLE, entity.getId()));
+        return 0;
+    }
+
     public PersonDTOv2 createv2(PersonDTOv2 person) {
 
         logger.info("Creating one Person V2!");
@@ -156,6 +336,7 @@ public class PersonServices {
         repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         repository.disablePerson(id);
+        caches.evictAfterCommit(CacheConfig.PEOPLE, id);
 
         var entity = repository.findById(id).get();
 
@@ -171,6 +352,7 @@ public class PersonServices {
         Person entity = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
         repository.delete(entity);
+        caches.evictAfterCommit(CacheConfig.PEOPLE, id);
 
     };
 
@@ -190,15 +372,16 @@ public class PersonServices {
         entity.setGender(person.getGender());
 
         var dto = parseObjects(repository.save(entity), PersonDTO.class);
+        caches.evictAfterCommit(CacheConfig.PEOPLE, dto.getId());
         addHateosLinks(dto);
         return dto;
     }
 
-    private PagedModel<EntityModel<PersonDTO>> buildPageModel(Pageable pegeable, Page<Person> people) {
+    private PagedModel<EntityModel<PersonDTO>> buildPageModel(Pageable pegeable, Page<PersonDTO> people) {
 
-        var peopleWithLinks = people.map(person -> {
-            var dto = parseObjects(person, PersonDTO.class);
-            addHateosLinks(dto);
+        var links = linkTemplates.current();
+        var peopleWithLinks = people.map(dto -> {
+            addHateosLinks(dto, links);
             return dto;
         });
 
@@ -208,23 +391,78 @@ public class PersonServices {
         return assembler.toModel(peopleWithLinks, findAllLink);
     }
 
+    // Boolean mode operators are stripped, the quotes make MySQL match the ngrams as one adjacent sequence
+    private static String toSearchTerm(String firstName) {
+        return FULL_TEXT_OPERATORS.matcher(firstName == null ? "" : firstName).replaceAll(" ").trim();
+    }
+
+    private static String toNgramPhrase(String term) {
+        return '"' + term + '"';
+    }
+
+    private SlicedModel<EntityModel<PersonDTO>> buildSliceModel(Slice<PersonDTO> people, Link selfLink) {
+
+        var links = linkTemplates.current();
+        var peopleWithLinks = people.map(dto -> {
+            addHateosLinks(dto, links);
+            return dto;
+        });
+
+        return slicedAssembler.toModel(peopleWithLinks, selfLink);
+    }
+
+    // Unpaged: one forward-only stream over every matching row, in the requested order
+    private Supplier<Stream<PersonDTO>> allRows(String firstName, Sort sort) {
+        Pageable all = Pageable.unpaged(sort);
+        var term = toSearchTerm(firstName);
+        if (term.isEmpty()) return () -> repository.streamPeople(all);
+        if (term.length() < NGRAM_TOKEN_SIZE) return () -> repository.streamPeopleByNameScan(term, all);
+        return () -> repository.streamPeopleByName(toNgramPhrase(term), all);
+    }
+
+    private FileExporter exporterFor(String acceptHeader) {
+        try {
+            return this.exporter.getExporter(acceptHeader);
+        } catch (Exception e) {
+            throw new RuntimeException("Error during file export!", e);
+        }
+    }
+
+    // Rows are DTO projections, nothing is attached to the persistence context while they stream by.
+    // Runs on the async request thread, the database stream is only readable inside a transaction
+    private void exportRows(Supplier<Stream<PersonDTO>> rows, FileExporter exporter, OutputStream outputStream) {
+        var transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<PersonDTO> people = rows.get()) {
+                exporter.exportFile(people::iterator, outputStream);
+            } catch (Exception e) {
+                throw new RuntimeException("Error during file export!", e);
+            }
+        });
+    }
+
     private void addHateosLinks(PersonDTO dto) {
-        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        addHateosLinks(dto, linkTemplates.current());
+    }
+
+    private void addHateosLinks(PersonDTO dto, PersonLinks links) {
+        dto.add(links.self(dto.getId()));
 
-        dto.add(linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
+        dto.add(links.findAll());
 
-        dto.add(linkTo(methodOn(PersonController.class).findByName("" ,1, 12, "asc")).withRel("findByName").withType("GET"));
+        dto.add(links.findByName());
 
-        dto.add(linkTo(methodOn(PersonController.class).create(dto)).withRel("create").withType("POST"));
+        dto.add(links.create());
 
-        dto.add(linkTo(methodOn(PersonController.class)).slash("massCreation").withRel("massCreation").withType("POST"));
+        dto.add(links.massCreation());
 
-        dto.add(linkTo(methodOn(PersonController.class).update(dto)).withRel("update").withType("PUT"));
+        dto.add(links.update());
 
-        dto.add(linkTo(methodOn(PersonController.class).disabledPerson(dto.getId())).withRel("disabled").withType("PATCH"));
+        dto.add(links.disabled(dto.getId()));
 
-        dto.add(linkTo(methodOn(PersonController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(links.delete(dto.getId()));
 
-        dto.add(linkTo(methodOn(PersonController.class).exportPage(1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("export People"));
+        dto.add(links.exportPage());
     };
 }
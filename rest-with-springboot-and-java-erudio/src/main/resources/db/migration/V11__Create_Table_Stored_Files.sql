@@ -0,0 +1,7 @@
+CREATE TABLE `stored_files` (
+  `name` varchar(255) NOT NULL PRIMARY KEY,
+  `sha256` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  `stored_at` datetime(6) NOT NULL,
+  KEY `idx_stored_files_sha256` (`sha256`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
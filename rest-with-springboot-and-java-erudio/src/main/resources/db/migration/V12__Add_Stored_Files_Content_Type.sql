@@ -0,0 +1,3 @@
+ALTER TABLE `stored_files` ADD `content_type` varchar(100) NULL AFTER `size`;
+
+CREATE INDEX `idx_stored_files_stored_at` ON `stored_files` (`stored_at`, `name`);
@@ -0,0 +1,21 @@
+CREATE INDEX `idx_person_first_name_id` ON `person` (`first_name`, `id`);
+
+-- title was a nullable longtext, the keyset index needs a bounded, non null column
+UPDATE `books` SET `title` = '' WHERE `title` IS NULL;
+
+-- Stops the migration instead of letting MODIFY reject or truncate longer titles, shorten them by hand first
+DROP PROCEDURE IF EXISTS `check_books_title_length`;
+DELIMITER //
+CREATE PROCEDURE `check_books_title_length`()
+BEGIN
+  IF EXISTS (SELECT 1 FROM `books` WHERE CHAR_LENGTH(`title`) > 250) THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'books.title has values longer than 250 characters';
+  END IF;
+END //
+DELIMITER ;
+CALL `check_books_title_length`();
+DROP PROCEDURE `check_books_title_length`;
+
+ALTER TABLE `books` MODIFY `title` varchar(250) NOT NULL;
+
+CREATE INDEX `idx_books_title_id` ON `books` (`title`, `id`);
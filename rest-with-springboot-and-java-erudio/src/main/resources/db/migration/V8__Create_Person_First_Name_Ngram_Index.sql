@@ -0,0 +1,6 @@
+-- ngram_token_size defaults to 2 on the server: every 2 character sequence of first_name is indexed,
+-- so substring searches are answered by the index instead of a LIKE %...% table scan.
+-- The default stopword list would drop every ngram containing 'a' or 'i', the index is created without it.
+SET SESSION innodb_ft_enable_stopword = OFF;
+
+ALTER TABLE `person` ADD FULLTEXT INDEX `ft_person_first_name` (`first_name`) WITH PARSER ngram;
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS `id_sequences` (
+  `sequence_name` varchar(64) NOT NULL,
+  `next_val` bigint NOT NULL,
+  PRIMARY KEY (`sequence_name`)
+);
+
+-- Hibernate's pooled optimizer reads next_val as the upper bound of the next block of 50 ids,
+-- so it starts 50 past the rows already inserted through AUTO_INCREMENT
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`) SELECT 'person', COALESCE(MAX(`id`), 0) + 50 FROM `person`;
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`) SELECT 'books', COALESCE(MAX(`id`), 0) + 50 FROM `books`;
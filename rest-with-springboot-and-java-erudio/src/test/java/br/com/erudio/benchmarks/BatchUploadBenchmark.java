@@ -0,0 +1,69 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.file.upload.BatchUploads;
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.services.FileStorageService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wall time of storing a 50 file batch upload: one file after another on the request thread (the
+ * previous uploadMultipleFiles) against BatchUploads with the configured concurrency caps. Every file
+ * has its own content, so content addressed storage can't skip any of the writes.
+ * Run with: mvn test -Pbenchmark -Dtest=BatchUploadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchUploadBenchmark extends AbstractIntegrationTest {
+
+    private static final int FILES = 50;
+    private static final int FILE_BYTES = 2 * 1024 * 1024;
+
+    @Autowired
+    FileStorageService service;
+
+    @Autowired
+    BatchUploads batchUploads;
+
+    @Test
+    void uploadMultipleFiles() throws Exception {
+        List<MockMultipartFile> sequentialFiles = files("sequential", 1);
+        List<MockMultipartFile> parallelFiles = files("parallel", 2);
+
+        long start = System.nanoTime();
+        for (MockMultipartFile file : sequentialFiles) service.storeFile(file);
+        long sequential = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<String> stored = batchUploads.storeAll(parallelFiles, service::storeFile, (file, e) -> null);
+        long parallel = System.nanoTime() - start;
+
+        System.out.printf("batch upload of %d files of %,d KB | sequential: %,6d ms | parallel: %,6d ms%n",
+                FILES, FILE_BYTES / 1024, sequential / 1_000_000, parallel / 1_000_000);
+
+        assertEquals(FILES, stored.stream().filter(Objects::nonNull).count());
+    }
+
+    private static List<MockMultipartFile> files(String prefix, long seed) {
+        var random = new Random(seed);
+        List<MockMultipartFile> files = new ArrayList<>(FILES);
+        for (int i = 0; i < FILES; i++) {
+            byte[] content = new byte[FILE_BYTES];
+            random.nextBytes(content);
+            files.add(new MockMultipartFile("files", prefix + "-" + i + ".bin", "application/octet-stream", content));
+        }
+        return files;
+    }
+}
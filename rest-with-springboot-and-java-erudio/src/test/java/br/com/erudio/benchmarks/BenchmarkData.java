@@ -0,0 +1,72 @@
+package br.com.erudio.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the person table of the benchmark database with generated rows, using multi row INSERTs so
+ * a million rows don't cost a million round trips, and generates import files with the same names.
+ */
+class BenchmarkData {
+
+    private static final String[] SYLLABLES = {
+            "an", "be", "ca", "do", "el", "fi", "ga", "hu", "io", "ja", "ko", "li",
+            "ma", "ne", "ol", "pa", "qu", "ra", "si", "to", "ul", "vi", "wa", "ze"
+    };
+    private static final int ROWS_PER_STATEMENT = 1_000;
+
+    static void seedPeople(JdbcTemplate jdbcTemplate, int rows) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM person", Long.class);
+        if (existing != null && existing >= rows) return;
+
+        var random = new Random(42);
+        int missing = (int) (rows - (existing == null ? 0 : existing));
+        for (int inserted = 0; inserted < missing; inserted += ROWS_PER_STATEMENT) {
+            int batch = Math.min(ROWS_PER_STATEMENT, missing - inserted);
+
+            var sql = new StringBuilder("INSERT INTO person (first_name, last_name, address, gender, enabled) VALUES ");
+            List<Object> args = new ArrayList<>(batch * 4);
+            for (int i = 0; i < batch; i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, b'1')" : ", (?, ?, ?, ?, b'1')");
+                args.add(name(random));
+                args.add(name(random));
+                args.add(random.nextInt(99_999) + " " + name(random) + " Street");
+                args.add(random.nextBoolean() ? "Male" : "Female");
+            }
+            jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        // Rows above went through AUTO_INCREMENT, move the pooled id generator past them
+        jdbcTemplate.update("UPDATE id_sequences SET next_val = (SELECT MAX(id) + 50 FROM person) WHERE sequence_name = 'person'");
+    }
+
+    static byte[] peopleCsv(int rows) {
+        return peopleCsv(rows, 7);
+    }
+
+    // Another seed gives rows that, in practice, share no natural key with the default file
+    static byte[] peopleCsv(int rows, long seed) {
+        var random = new Random(seed);
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(name(random)).append(',')
+                    .append(name(random)).append(',')
+                    .append(random.nextInt(99_999)).append(' ').append(name(random)).append(" Street,")
+                    .append(random.nextBoolean() ? "Male" : "Female").append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String name(Random random) {
+        var name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
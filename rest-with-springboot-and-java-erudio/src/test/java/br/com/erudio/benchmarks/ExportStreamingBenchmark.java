@@ -0,0 +1,118 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.config.TestConfigs;
+import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.file.exporter.impl.CsvExporter;
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time to first byte, total time and peak heap of a 1M row CSV export: the previous path (whole page
+ * loaded, rendered into a ByteArrayResource) against the streaming exportPage endpoint.
+ * Run with: mvn test -Pbenchmark -Dtest=ExportStreamingBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportStreamingBenchmark extends AbstractIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    CsvExporter exporter;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkData.seedPeople(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void exportPage() throws Exception {
+        var pageable = PageRequest.of(0, ROWS, Sort.by(Sort.Direction.ASC, "firstName"));
+
+        resetPeakHeap();
+        long start = System.nanoTime();
+        var resource = exporter.exportFile(repository.findPeople(pageable).getContent());
+        // Nothing can be sent before the whole resource is rendered
+        long bufferedFirstByte = System.nanoTime() - start;
+        long bufferedBytes = resource.contentLength();
+        long bufferedTotal = System.nanoTime() - start;
+        long bufferedHeap = peakHeap();
+        resource = null;
+
+        var client = HttpClient.newHttpClient();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + TestConfigs.SERVER_PORT
+                        + "/api/person/v1/exportPage?page=0&size=" + ROWS + "&direction=asc"))
+                .header(HttpHeaders.ACCEPT, MediaTypes.APPLICATION_CSV_VALUE)
+                .timeout(Duration.ofMinutes(30))
+                .build();
+
+        resetPeakHeap();
+        start = System.nanoTime();
+        long streamedFirstByte;
+        long streamedBytes = 0;
+        try (InputStream body = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            int first = body.read();
+            streamedFirstByte = System.nanoTime() - start;
+            assertTrue(first >= 0);
+            streamedBytes++;
+
+            byte[] buffer = new byte[64 * 1024];
+            for (int read; (read = body.read(buffer)) >= 0; ) streamedBytes += read;
+        }
+        long streamedTotal = System.nanoTime() - start;
+        long streamedHeap = peakHeap();
+
+        System.out.printf("CSV export of %,d rows | buffered: first byte %,8d ms, total %,8d ms, peak heap %,6d MB"
+                        + " | streaming: first byte %,8d ms, total %,8d ms, peak heap %,6d MB%n",
+                ROWS, bufferedFirstByte / 1_000_000, bufferedTotal / 1_000_000, bufferedHeap >> 20,
+                streamedFirstByte / 1_000_000, streamedTotal / 1_000_000, streamedHeap >> 20);
+
+        assertEquals(bufferedBytes, streamedBytes);
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    // Server and client share this JVM, so the peak includes both sides of the export
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.file.importer.impl.CsvImporter;
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonBatchWriter;
+import br.com.erudio.repository.PersonRepository;
+import br.com.erudio.services.PersonServices;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.erudio.mapper.ObjectMapper.parseObjects;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second of the import path: one repository.save per row (the previous massCreation loop,
+ * one INSERT and one commit per row) against PersonBatchWriter's batched inserts, plus the whole
+ * massCreation call for a CSV upload. The upsert path is measured on the same rows, once when all of
+ * them already exist and once when none does.
+ * Run with: mvn test -Pbenchmark -Dtest=ImportThroughputBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ImportThroughputBenchmark extends AbstractIntegrationTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    PersonBatchWriter batchWriter;
+
+    @Autowired
+    PersonServices service;
+
+    @Autowired
+    CsvImporter importer;
+
+    @Test
+    void importPeople() throws Exception {
+        byte[] csv = BenchmarkData.peopleCsv(ROWS);
+        List<PersonDTO> people = importer.importFile(new ByteArrayInputStream(csv));
+
+        long count = repository.count();
+        long start = System.nanoTime();
+        for (PersonDTO dto : people) repository.save(parseObjects(dto, Person.class));
+        double perRow = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        batchWriter.persistAll(people.stream().map(dto -> parseObjects(dto, Person.class)).toList());
+        double batched = rowsPerSecond(start);
+
+        start = System.nanoTime();
+        var created = service.massCreation(new MockMultipartFile("file", "people.csv", "text/csv", csv));
+        double massCreation = rowsPerSecond(start);
+
+        System.out.printf("import of %,d rows | save per row: %,10.0f rows/s | batched: %,10.0f rows/s | massCreation: %,10.0f rows/s%n",
+                ROWS, perRow, batched, massCreation);
+
+        assertEquals(ROWS, created.size());
+        assertEquals(count + 3L * ROWS, repository.count());
+
+        start = System.nanoTime();
+        var upsertExisting = upsert(people);
+        double updates = rowsPerSecond(start);
+
+        byte[] fresh = BenchmarkData.peopleCsv(ROWS, 11);
+        start = System.nanoTime();
+        var upsertNew = upsert(importer.importFile(new ByteArrayInputStream(fresh)));
+        double inserts = rowsPerSecond(start);
+
+        System.out.printf("upsert of %,d rows | all existing: %,10.0f rows/s | all new: %,10.0f rows/s%n",
+                ROWS, updates, inserts);
+
+        assertEquals(0, upsertExisting.inserted().size());
+        assertEquals(ROWS, upsertNew.inserted().size());
+        assertEquals(count + 4L * ROWS, repository.count());
+    }
+
+    // Chunks of 1000 rows, as file.import-chunk-size sends them
+    private PersonBatchWriter.UpsertResult upsert(List<PersonDTO> people) {
+        List<Person> inserted = new ArrayList<>();
+        List<Person> updated = new ArrayList<>();
+        for (int from = 0; from < people.size(); from += 1_000) {
+            var chunk = people.subList(from, Math.min(from + 1_000, people.size())).stream()
+                    .map(dto -> parseObjects(dto, Person.class)).toList();
+            var result = batchWriter.upsertAll(chunk);
+            inserted.addAll(result.inserted());
+            updated.addAll(result.updated());
+        }
+        return new PersonBatchWriter.UpsertResult(inserted, updated);
+    }
+
+    private static double rowsPerSecond(long start) {
+        return ROWS / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.dto.v1.BookDTO;
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import br.com.erudio.unittests.mapper.mocks.MockBook;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static br.com.erudio.mapper.ObjectMapper.parseObjects;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-object mapping cost of the reflective Dozer mapper (the previous implementation of
+ * ObjectMapper) against the MapStruct generated mappers now used by parseObjects.
+ * Run with: mvn test -Pbenchmark -Dtest=ObjectMapperBenchmark
+ */
+@Tag("benchmark")
+class ObjectMapperBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private final Mapper dozer = DozerBeanMapperBuilder.buildDefault();
+
+    @Test
+    void personEntityToDTO() {
+        List<Person> people = new MockPerson().mockEntityList();
+
+        double before = measure(people, person -> dozer.map(person, PersonDTO.class));
+        double after = measure(people, person -> parseObjects(person, PersonDTO.class));
+
+        report("Person -> PersonDTO", before, after);
+        assertEquals(dozer.map(people.get(3), PersonDTO.class), parseObjects(people.get(3), PersonDTO.class));
+    }
+
+    @Test
+    void personDTOToEntity() {
+        List<PersonDTO> people = new MockPerson().mockDTOList();
+
+        double before = measure(people, person -> dozer.map(person, Person.class));
+        double after = measure(people, person -> parseObjects(person, Person.class));
+
+        report("PersonDTO -> Person", before, after);
+        assertEquals(dozer.map(people.get(3), Person.class), parseObjects(people.get(3), Person.class));
+    }
+
+    @Test
+    void bookEntityToDTO() {
+        List<Book> books = new MockBook().mockEntityList();
+
+        double before = measure(books, book -> dozer.map(book, BookDTO.class));
+        double after = measure(books, book -> parseObjects(book, BookDTO.class));
+
+        report("Book -> BookDTO", before, after);
+        assertEquals(dozer.map(books.get(3), BookDTO.class), parseObjects(books.get(3), BookDTO.class));
+    }
+
+    private static <T> double measure(List<T> input, Function<T, ?> mapping) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = mapping.apply(input.get(i % input.size()));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = mapping.apply(input.get(i % input.size()));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (sink == null) throw new IllegalStateException("Mapping produced no result");
+        return (double) elapsed / MEASURED_ITERATIONS;
+    }
+
+    private static void report(String mapping, double before, double after) {
+        System.out.printf("%-22s dozer: %8.1f ns/op | generated: %8.1f ns/op | speedup: %5.1fx%n",
+                mapping, before, after, before / after);
+    }
+}
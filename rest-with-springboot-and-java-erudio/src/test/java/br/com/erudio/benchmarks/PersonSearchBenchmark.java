@@ -0,0 +1,69 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the LIKE '%term%' scan against the ngram FULLTEXT index for findPeopleByName over 1M people.
+ * Run with: mvn test -Pbenchmark -Dtest=PersonSearchBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersonSearchBenchmark extends AbstractIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int ITERATIONS = 20;
+    private static final String[] TERMS = {"ikol", "ama", "zeto", "quli", "elpa"};
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkData.seedPeople(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void findPeopleByName() {
+        Pageable pageable = PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "firstName"));
+
+        double scan = measure(term -> repository.findPeopleByNameScan(term, pageable).getTotalElements());
+        double ngram = measure(term -> repository.findPeopleByName('"' + term + '"', pageable).getTotalElements());
+
+        System.out.printf("findPeopleByName over %,d rows | LIKE scan: %8.2f ms/query | ngram index: %8.2f ms/query%n",
+                ROWS, scan, ngram);
+
+        for (String term : TERMS) {
+            assertEquals(repository.findPeopleByNameScan(term, pageable).getTotalElements(),
+                    repository.findPeopleByName('"' + term + '"', pageable).getTotalElements());
+        }
+    }
+
+    private static double measure(Function<String, Long> query) {
+        for (String term : TERMS) query.apply(term);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (String term : TERMS) query.apply(term);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / (ITERATIONS * TERMS.length);
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static br.com.erudio.mapper.ObjectMapper.parseObjects;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the previous list path (managed Person entities mapped to PersonDTO) against the JPQL
+ * constructor projection now used by the list endpoints, in latency and heap allocated per page.
+ * Run with: mvn test -Pbenchmark -Dtest=ProjectionBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProjectionBenchmark extends AbstractIntegrationTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void seed() {
+        BenchmarkData.seedPeople(jdbcTemplate, ROWS);
+    }
+
+    @Test
+    void findAllPage() {
+        Pageable pageable = PageRequest.of(10, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "firstName"));
+
+        // Both paths run inside one read-only transaction, as the service does per request
+        Supplier<List<PersonDTO>> entities = () -> inTransaction(() -> repository.findAll(pageable)
+                .map(person -> parseObjects(person, PersonDTO.class)).getContent());
+        Supplier<List<PersonDTO>> projection = () -> inTransaction(() -> repository.findPeople(pageable).getContent());
+
+        long[] before = measure(entities);
+        long[] after = measure(projection);
+
+        System.out.printf("findAll page of %d | entities: %8.3f ms, %,10d bytes | projection: %8.3f ms, %,10d bytes%n",
+                PAGE_SIZE, before[0] / 1_000_000.0, before[1], after[0] / 1_000_000.0, after[1]);
+
+        assertEquals(entities.get(), projection.get());
+    }
+
+    private List<PersonDTO> inTransaction(Supplier<List<PersonDTO>> query) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return query.get();
+        });
+    }
+
+    // Returns the average nanoseconds and bytes allocated by the current thread per call
+    private long[] measure(Supplier<List<PersonDTO>> query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) query.get();
+
+        long thread = Thread.currentThread().threadId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) query.get();
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+        return new long[] {elapsed / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS};
+    }
+}
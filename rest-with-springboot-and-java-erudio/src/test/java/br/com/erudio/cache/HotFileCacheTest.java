@@ -0,0 +1,97 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.config.HotFileCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotFileCacheTest {
+
+    private static final MediaType SVG = MediaType.valueOf("image/svg+xml");
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry registry;
+    private HotFileCache hotFiles;
+
+    @BeforeEach
+    void setUp() {
+        var config = new HotFileCacheConfig();
+        config.setMaxFileSize(DataSize.ofBytes(100));
+        registry = new SimpleMeterRegistry();
+        hotFiles = new HotFileCache(config, registry);
+    }
+
+    @Test
+    void loadsSmallFilesWithTheirMediaTypeAndValidators() throws Exception {
+        Path file = Files.writeString(dir.resolve("logo.svg"), "<svg/>");
+
+        var loaded = hotFiles.load("logo.svg", file, SVG, hotFiles.generation());
+
+        assertEquals("<svg/>", new String(loaded.content()));
+        assertEquals(SVG, loaded.contentType());
+        assertEquals(Files.getLastModifiedTime(file).toMillis(), loaded.lastModified());
+        assertTrue(loaded.eTag().startsWith("\"6-"));
+        assertSame(loaded, hotFiles.get("logo.svg"));
+    }
+
+    @Test
+    void largerFilesAreNotHeld() throws Exception {
+        Path file = Files.write(dir.resolve("export.csv"), new byte[101]);
+
+        assertNull(hotFiles.load("export.csv", file, MediaType.valueOf("text/csv"), hotFiles.generation()));
+        assertNull(hotFiles.get("export.csv"));
+        assertEquals(0, hotFiles.bytesHeld());
+    }
+
+    @Test
+    void invalidateDropsTheEntry() throws Exception {
+        Path file = Files.writeString(dir.resolve("logo.svg"), "<svg/>");
+        hotFiles.load("logo.svg", file, SVG, hotFiles.generation());
+
+        hotFiles.invalidate("logo.svg");
+
+        assertNull(hotFiles.get("logo.svg"));
+    }
+
+    @Test
+    void loadStartedBeforeAReplacementIsNotCached() throws Exception {
+        Path file = Files.writeString(dir.resolve("logo.svg"), "<svg/>");
+        long stamp = hotFiles.generation();
+        hotFiles.invalidate("logo.svg");
+
+        assertNotNull(hotFiles.load("logo.svg", file, SVG, stamp));
+        assertNull(hotFiles.get("logo.svg"));
+    }
+
+    @Test
+    void publishesHitRatio() throws Exception {
+        Path file = Files.writeString(dir.resolve("logo.svg"), "<svg/>");
+        hotFiles.get("logo.svg");
+        hotFiles.load("logo.svg", file, SVG, hotFiles.generation());
+        hotFiles.get("logo.svg");
+
+        assertEquals(0.5, registry.get("file.hot-cache.hit.ratio").gauge().value());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "hotFiles").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void disabledCacheHoldsNothing() throws Exception {
+        var config = new HotFileCacheConfig();
+        config.setEnabled(false);
+        hotFiles = new HotFileCache(config, new SimpleMeterRegistry());
+        Path file = Files.writeString(dir.resolve("logo.svg"), "<svg/>");
+
+        assertNull(hotFiles.load("logo.svg", file, SVG, hotFiles.generation()));
+        assertNull(hotFiles.get("logo.svg"));
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.erudio.cache;
+
+import br.com.erudio.config.CacheConfig;
+import br.com.erudio.config.ResponseCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheTest {
+
+    private static final String JSON = "application/json http://localhost:8888";
+    private static final String XML = "application/xml http://localhost:8888";
+
+    private ResponseBodyCache responses;
+
+    @BeforeEach
+    void setUp() {
+        responses = new ResponseBodyCache(new ResponseCacheConfig(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void putAndGetVariants() {
+        responses.put(CacheConfig.PEOPLE, 1L, JSON, entry("{}"), responses.generation());
+        responses.put(CacheConfig.PEOPLE, 1L, XML, entry("<PersonDTO/>"), responses.generation());
+
+        assertEquals("{}", new String(responses.get(CacheConfig.PEOPLE, 1L, JSON).body()));
+        assertEquals("<PersonDTO/>", new String(responses.get(CacheConfig.PEOPLE, 1L, XML).body()));
+        assertNull(responses.get(CacheConfig.BOOKS, 1L, JSON));
+    }
+
+    @Test
+    void invalidateDropsEveryVariantOfTheEntity() {
+        responses.put(CacheConfig.PEOPLE, 1L, JSON, entry("{}"), responses.generation());
+        responses.put(CacheConfig.PEOPLE, 1L, XML, entry("<PersonDTO/>"), responses.generation());
+        responses.put(CacheConfig.PEOPLE, 2L, JSON, entry("{}"), responses.generation());
+
+        responses.invalidate(CacheConfig.PEOPLE, 1L);
+
+        assertNull(responses.get(CacheConfig.PEOPLE, 1L, JSON));
+        assertNull(responses.get(CacheConfig.PEOPLE, 1L, XML));
+        assertNotNull(responses.get(CacheConfig.PEOPLE, 2L, JSON));
+    }
+
+    @Test
+    void bodyRenderedBeforeAWriteIsNotStored() {
+        long stamp = responses.generation();
+        responses.invalidate(CacheConfig.PEOPLE, 1L);
+
+        responses.put(CacheConfig.PEOPLE, 1L, JSON, entry("{}"), stamp);
+
+        assertNull(responses.get(CacheConfig.PEOPLE, 1L, JSON));
+    }
+
+    private static ResponseBodyCache.Entry entry(String body) {
+        return new ResponseBodyCache.Entry(Map.of("Content-Type", List.of("application/json")), body.getBytes());
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.erudio.file.download;
+
+import br.com.erudio.cache.HotFileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSenderTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final MediaType CSV = MediaType.valueOf("text/csv");
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private FileSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(dir.resolve("people.csv"), CONTENT);
+        sender = new FileSender();
+    }
+
+    @Test
+    void sendsWholeFileWithValidators() throws Exception {
+        var response = send(get());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals(20, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertTrue(response.getContentType().startsWith("text/csv"));
+    }
+
+    @Test
+    void answersNotModifiedForMatchingETag() throws Exception {
+        var eTag = send(get()).getHeader(HttpHeaders.ETAG);
+
+        var request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        var response = send(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendsSingleRange() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        var response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+        assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void sendsSuffixRange() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        var response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("hij", response.getContentAsString());
+    }
+
+    @Test
+    void sendsMultipleRangesAsByteranges() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,18-19");
+        var response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        var body = response.getContentAsString(StandardCharsets.US_ASCII);
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 18-19/20\r\n\r\nij"));
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeNoLongerMatches() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        var response = send(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-60");
+        var response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void rejectsRangesAddingUpToMoreThanTheFile() throws Exception {
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-,0-,0-");
+        var response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void handsLargeFilesToSendfile() throws Exception {
+        Path large = Files.write(dir.resolve("export.csv"), new byte[64 * 1024]);
+        var request = get();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        var response = new MockHttpServletResponse();
+
+        sender.send(large, CSV, "export.csv", request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(large.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(64L * 1024, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendsCachedCopyWithTheFileValidators() throws Exception {
+        var fromDisk = send(get());
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        var hotFile = new HotFileCache.HotFile(CONTENT.getBytes(StandardCharsets.UTF_8), MediaType.valueOf("text/csv"),
+                FileSender.eTag(20, lastModified), lastModified);
+
+        var request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        var response = new MockHttpServletResponse();
+        sender.send(hotFile, "people.csv", request, response);
+
+        assertEquals(fromDisk.getHeader(HttpHeaders.ETAG), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(206, response.getStatus());
+        assertEquals("56789", response.getContentAsString());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/people.csv");
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        var response = new MockHttpServletResponse();
+        sender.send(file, CSV, "people.csv", request, response);
+        return response;
+    }
+}
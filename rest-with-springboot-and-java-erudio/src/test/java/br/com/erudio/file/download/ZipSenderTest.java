@@ -0,0 +1,123 @@
+package br.com.erudio.file.download;
+
+import jakarta.servlet.ServletOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipSenderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sendsEveryFileAsAnEntry() throws Exception {
+        byte[] logo = new byte[100_000];
+        new Random(7).nextBytes(logo);
+        Map<String, Path> files = new LinkedHashMap<>();
+        files.put("people.csv", Files.writeString(dir.resolve("people.csv"), "first_name\nAyrton\n".repeat(1000)));
+        files.put("logo.PNG", Files.write(dir.resolve("logo.PNG"), logo));
+
+        var response = new MockHttpServletResponse();
+        new ZipSender().send(files, "files.zip", response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/zip", response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("files.zip"));
+
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            ZipEntry csv = zip.getNextEntry();
+            assertEquals("people.csv", csv.getName());
+            assertEquals(ZipEntry.DEFLATED, csv.getMethod());
+            assertEquals("first_name\nAyrton\n".repeat(1000), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+
+            // Already compressed, stored as is
+            ZipEntry png = zip.getNextEntry();
+            assertEquals("logo.PNG", png.getName());
+            assertEquals(ZipEntry.STORED, png.getMethod());
+            assertEquals(logo.length, png.getSize());
+            assertArrayEquals(logo, zip.readAllBytes());
+
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void emptyFilesMakeValidEntries() throws Exception {
+        Map<String, Path> files = Map.of("empty.zip", Files.createFile(dir.resolve("empty.zip")));
+
+        var response = new MockHttpServletResponse();
+        new ZipSender().send(files, "files.zip", response);
+
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("empty.zip", zip.getNextEntry().getName());
+            assertEquals(0, zip.readAllBytes().length);
+            assertNull(zip.getNextEntry());
+        }
+    }
+
+    @Test
+    void fileReplacedWhileSendingIsSentAsItWas() throws Exception {
+        byte[] logo = new byte[10_000];
+        new Random(7).nextBytes(logo);
+        Path file = Files.write(dir.resolve("logo.png"), logo);
+        Path replacement = Files.write(dir.resolve("logo.part"), new byte[20_000]);
+
+        // Replaced once the entry header, with the CRC of the old content, has gone out
+        var body = new ByteArrayOutputStream();
+        var response = new MockHttpServletResponse() {
+            private boolean replaced;
+
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new DelegatingServletOutputStream(body) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        super.write(b, off, len);
+                        replace();
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        super.write(b);
+                        replace();
+                    }
+                };
+            }
+
+            private void replace() {
+                if (replaced) return;
+                replaced = true;
+                try {
+                    Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        new ZipSender().send(Map.of("logo.png", file), "files.zip", response);
+
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals(ZipEntry.STORED, zip.getNextEntry().getMethod());
+            assertArrayEquals(logo, zip.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.erudio.file.exporter;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.file.exporter.impl.XlsxExporter;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxExporterTest {
+
+    @Test
+    void writesHeaderAndRows() throws Exception {
+        try (var workbook = export(new XlsxExporter(), people(2))) {
+            assertEquals(1, workbook.getNumberOfSheets());
+            var sheet = workbook.getSheet("People");
+            assertEquals("First Name", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(2.0, sheet.getRow(2).getCell(0).getNumericCellValue());
+            assertEquals("First Name 2", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertEquals("Yes", sheet.getRow(2).getCell(5).getStringCellValue());
+        }
+    }
+
+    @Test
+    void continuesOnANewSheetAtTheRowLimit() throws Exception {
+        var exporter = new XlsxExporter();
+        // Header plus three people per sheet
+        ReflectionTestUtils.setField(exporter, "maxRowsPerSheet", 4);
+
+        try (var workbook = export(exporter, people(7))) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            assertEquals(List.of("People", "People 2", "People 3"),
+                    List.of(workbook.getSheetName(0), workbook.getSheetName(1), workbook.getSheetName(2)));
+
+            assertEquals(3, workbook.getSheetAt(0).getLastRowNum());
+            assertEquals(3, workbook.getSheetAt(1).getLastRowNum());
+            assertEquals(1, workbook.getSheetAt(2).getLastRowNum());
+
+            var second = workbook.getSheetAt(1);
+            assertEquals("ID", second.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(4.0, second.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals(7.0, workbook.getSheetAt(2).getRow(1).getCell(0).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void defaultsToTheExcelRowLimit() {
+        assertEquals(SpreadsheetVersion.EXCEL2007.getMaxRows(), ReflectionTestUtils.getField(new XlsxExporter(), "maxRowsPerSheet"));
+    }
+
+    private static List<PersonDTO> people(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new PersonDTO(id, "First Name " + id, "Last Name " + id, "Address " + id, "Male", true))
+                .toList();
+    }
+
+    private static XSSFWorkbook export(XlsxExporter exporter, List<PersonDTO> people) throws Exception {
+        var out = new ByteArrayOutputStream();
+        exporter.exportFile(people, out);
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.erudio.file.importer;
+
+import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.file.importer.impl.XlsxImporter;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxImporterTest {
+
+    private final XlsxImporter importer = new XlsxImporter();
+
+    @Test
+    void mapsColumnsFromSharedStrings() throws Exception {
+        byte[] xlsx = workbook(workbook -> {
+            var sheet = workbook.createSheet("People");
+            row(sheet, 0, "First Name", "Last Name", "Address", "Gender");
+            row(sheet, 1, "Ayrton", "Senna", "São Paulo", "Male");
+            // Same strings again, both rows point at the same shared string entries
+            row(sheet, 2, "Ayrton", "Senna", "São Paulo", "Male");
+        });
+
+        List<PersonDTO> people = importer.importFile(new ByteArrayInputStream(xlsx));
+
+        assertEquals(2, people.size());
+        var person = people.get(0);
+        assertEquals("Ayrton", person.getFirstName());
+        assertEquals("Senna", person.getLastName());
+        assertEquals("São Paulo", person.getAddress());
+        assertEquals("Male", person.getGender());
+        assertTrue(person.getEnabled());
+        assertEquals(person.getFirstName(), people.get(1).getFirstName());
+    }
+
+    @Test
+    void keepsColumnsOfSparseRowsInPlace() throws Exception {
+        byte[] xlsx = workbook(workbook -> {
+            var sheet = workbook.createSheet("People");
+            row(sheet, 0, "First Name", "Last Name", "Address", "Gender");
+            // No cell at all for the last name, the reader skips it in the XML
+            var row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Alain");
+            row.createCell(2).setCellValue("Paris");
+            row.createCell(3).setCellValue("Male");
+        });
+
+        var person = importer.importFile(new ByteArrayInputStream(xlsx)).get(0);
+
+        assertEquals("Alain", person.getFirstName());
+        assertNull(person.getLastName());
+        assertEquals("Paris", person.getAddress());
+        assertEquals("Male", person.getGender());
+    }
+
+    @Test
+    void skipsBlankRowsAndGaps() throws Exception {
+        byte[] xlsx = workbook(workbook -> {
+            var sheet = workbook.createSheet("People");
+            row(sheet, 0, "First Name", "Last Name", "Address", "Gender");
+            row(sheet, 1, "Ayrton", "Senna", "São Paulo", "Male");
+            // A styled cell without a value is BLANK
+            var blank = sheet.createRow(2);
+            blank.createCell(0);
+            blank.createCell(1).setCellValue("Nobody");
+            // Rows 3 and 4 are missing from the sheet
+            row(sheet, 5, "Alain", "Prost", "Paris", "Male");
+        });
+
+        var people = importer.importFile(new ByteArrayInputStream(xlsx));
+
+        assertEquals(List.of("Ayrton", "Alain"), people.stream().map(PersonDTO::getFirstName).toList());
+    }
+
+    @Test
+    void keepsRowsWhoseFirstCellIsOnlyWhitespace() throws Exception {
+        byte[] xlsx = workbook(workbook -> {
+            var sheet = workbook.createSheet("People");
+            row(sheet, 0, "First Name", "Last Name", "Address", "Gender");
+            row(sheet, 1, " ", "Nobody", "Nowhere", "Female");
+        });
+
+        var people = importer.importFile(new ByteArrayInputStream(xlsx));
+
+        // Left to the row validation, as before the event based reader
+        assertEquals(1, people.size());
+        assertEquals(" ", people.get(0).getFirstName());
+        assertEquals("Nobody", people.get(0).getLastName());
+    }
+
+    @Test
+    void headerOnlySheetImportsNothing() throws Exception {
+        byte[] xlsx = workbook(workbook -> row(workbook.createSheet("People"), 0, "First Name", "Last Name", "Address", "Gender"));
+
+        assertTrue(importer.importFile(new ByteArrayInputStream(xlsx)).isEmpty());
+    }
+
+    private static void row(Sheet sheet, int index, String... values) {
+        var row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) row.createCell(i).setCellValue(values[i]);
+    }
+
+    private static byte[] workbook(Consumer<XSSFWorkbook> content) throws Exception {
+        try (var workbook = new XSSFWorkbook(); var out = new ByteArrayOutputStream()) {
+            content.accept(workbook);
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.erudio.file.upload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchUploadsTest {
+
+    private BatchUploads uploads;
+
+    @BeforeEach
+    void setUp() {
+        uploads = new BatchUploads();
+        uploads.requestConcurrency = 4;
+        uploads.maxConcurrency = 16;
+        uploads.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploads.stop();
+    }
+
+    @Test
+    void returnsResultsInTheOrderGiven() throws Exception {
+        var items = IntStream.range(0, 50).boxed().toList();
+
+        var results = uploads.storeAll(items, item -> {
+            Thread.sleep(50 - item);
+            return "stored-" + item;
+        }, (item, e) -> "failed-" + item);
+
+        assertEquals(items.stream().map(item -> "stored-" + item).toList(), results);
+    }
+
+    @Test
+    void failuresAreReportedPerItem() throws Exception {
+        var results = uploads.storeAll(List.of("a.csv", "broken.csv", "c.csv"), item -> {
+            if (item.startsWith("broken")) throw new IllegalStateException("disk full");
+            return item;
+        }, (item, e) -> item + ": " + e.getMessage());
+
+        assertEquals(List.of("a.csv", "broken.csv: disk full", "c.csv"), results);
+    }
+
+    @Test
+    void neverRunsMoreThanTheRequestCap() throws Exception {
+        var running = new AtomicInteger();
+        var peak = new AtomicInteger();
+
+        uploads.storeAll(IntStream.range(0, 40).boxed().toList(), item -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return item;
+        }, (item, e) -> item);
+
+        assertTrue(peak.get() <= 4, "peak was " + peak.get());
+        assertTrue(peak.get() > 1, "uploads did not overlap");
+    }
+
+    @Test
+    void globalCapHoldsAcrossRequests() throws Exception {
+        uploads.stop();
+        uploads.maxConcurrency = 3;
+        uploads.start();
+
+        var running = new AtomicInteger();
+        var peak = new AtomicInteger();
+        BatchUploads.Upload<Integer, Integer> upload = item -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return item;
+        };
+
+        var requests = IntStream.range(0, 3).mapToObj(request -> Thread.ofVirtual().start(() -> {
+            try {
+                uploads.storeAll(IntStream.range(0, 20).boxed().toList(), upload, (item, e) -> item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })).toList();
+        for (Thread request : requests) request.join();
+
+        assertTrue(peak.get() <= 3, "peak was " + peak.get());
+    }
+}
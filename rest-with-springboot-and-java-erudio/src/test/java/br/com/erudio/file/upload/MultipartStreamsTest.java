@@ -0,0 +1,88 @@
+package br.com.erudio.file.upload;
+
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.exception.FileStorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamsTest {
+
+    private static final String BOUNDARY = "----people-boundary";
+
+    private MultipartStreams multipart;
+
+    @BeforeEach
+    void setUp() {
+        multipart = new MultipartStreams();
+    }
+
+    @Test
+    void readsTheFilePartAfterFormFields() throws Exception {
+        var request = multipartRequest(
+                formField("description", "people"),
+                filePart("file", "people.csv", "first_name\nAyrton\n"));
+
+        var result = multipart.readFile(request, "file",
+                (fileName, contentType, content) -> fileName + "|" + contentType + "|" + new String(content.readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals("people.csv|text/csv|first_name\nAyrton\n", result);
+    }
+
+    @Test
+    void rejectsRequestWithoutTheFilePart() {
+        var request = multipartRequest(formField("description", "people"));
+
+        assertThrows(BadRequestException.class,
+                () -> multipart.readFile(request, "file", (fileName, contentType, content) -> fileName));
+    }
+
+    @Test
+    void rejectsFileOverTheLimit() {
+        ReflectionTestUtils.setField(multipart, "maxFileSize", DataSize.ofBytes(8));
+        var request = multipartRequest(filePart("file", "people.csv", "first_name\nAyrton\n"));
+
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> multipart.readFile(request, "file", (fileName, contentType, content) -> content.readAllBytes()));
+    }
+
+    @Test
+    void rejectsFileOverTheLimitHitInsideAWrappingReader() {
+        ReflectionTestUtils.setField(multipart, "maxFileSize", DataSize.ofBytes(8));
+        var request = multipartRequest(filePart("file", "people.csv", "first_name\nAyrton\n"));
+
+        // Like the importers: the limit surfaces as an UncheckedIOException, wrapped again by the service
+        assertThrows(MaxUploadSizeExceededException.class, () -> multipart.readFile(request, "file", (fileName, contentType, content) -> {
+            try (var reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+                return reader.lines().count();
+            } catch (Exception e) {
+                throw new FileStorageException("Error Processing the File!", e);
+            }
+        }));
+    }
+
+    private static String formField(String name, String value) {
+        return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n";
+    }
+
+    private static String filePart(String name, String fileName, String content) {
+        return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName
+                + "\"\r\nContent-Type: text/csv\r\n\r\n" + content + "\r\n";
+    }
+
+    private static MockHttpServletRequest multipartRequest(String... parts) {
+        var request = new MockHttpServletRequest("POST", "/api/file/v1/uploadFileStream");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent((String.join("", parts) + "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
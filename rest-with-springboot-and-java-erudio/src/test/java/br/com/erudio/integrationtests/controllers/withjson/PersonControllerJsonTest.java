@@ -262,6 +262,28 @@ class PersonControllerJsonTest extends AbstractIntegrationTest {
         assertTrue(personFour.getEnabled());
     }
 
+    @Test
+    @Order(8)
+    void exportAllTest() {
+
+        //http://localhost:8080/api/person/v1/exportAll?firstName=and&direction=asc
+        var response = given(specification)
+                .accept("text/csv")
+                .queryParams("firstName", "and", "direction", "asc")
+                .when()
+                .get("exportAll")
+                .then()
+                .statusCode(200)
+                .contentType("text/csv")
+                .extract();
+
+        assertTrue(response.header("Content-Disposition").contains("people_exported_all.csv"));
+
+        var lines = response.body().asString().lines().toList();
+        assertEquals("ID,First Name,Last Name,Address,Gender,Enabled", lines.get(0));
+        assertTrue(lines.get(1).contains("Alessandro,McFaul,5 Lukken Plaza,Male,true"));
+    }
+
     private void mockPerson() {
         person.setFirstName("Linus");
         person.setLastName("Torvalds");
@@ -16,7 +16,8 @@ public class AbstractIntegrationTest {
 
     static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
 
-        static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:9.1.0");
+        static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:9.1.0")
+                .withUrlParam("rewriteBatchedStatements", "true");
 
         private static void startContainers() {
             Startables.deepStart(Stream.of(mysql)).join();
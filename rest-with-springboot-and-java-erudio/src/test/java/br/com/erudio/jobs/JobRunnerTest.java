@@ -0,0 +1,143 @@
+package br.com.erudio.jobs;
+
+import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.exception.TooManyJobsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRunnerTest {
+
+    private JobRunner<TestJob> runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new JobRunner<>("test-job", 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void completesJob() throws Exception {
+        var done = new CountDownLatch(1);
+        var job = runner.submit(new TestJob(), j -> done.countDown());
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        awaitFinished(job);
+        assertEquals(JobStatus.COMPLETED, runner.find(job.getId()).getStatus());
+    }
+
+    @Test
+    void failedJobKeepsTheError() throws Exception {
+        var job = runner.submit(new TestJob(), j -> {
+            throw new IllegalStateException("Broken row");
+        });
+
+        awaitFinished(job);
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals("Broken row", job.getError());
+    }
+
+    @Test
+    void cancelStopsRunningJob() throws Exception {
+        var started = new CountDownLatch(1);
+        var job = runner.submit(new TestJob(), j -> {
+            started.countDown();
+            while (true) j.checkCancelled();
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        runner.cancel(job.getId());
+
+        awaitFinished(job);
+        assertEquals(JobStatus.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    void rejectsJobsOverTheQueueCapacity() throws Exception {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        runner.submit(new TestJob(), j -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = runner.submit(new TestJob(), j -> {});
+
+        var rejected = new TestJob();
+        assertThrows(TooManyJobsException.class, () -> runner.submit(rejected, j -> {}));
+        assertThrows(ResourceNotFoundException.class, () -> runner.find(rejected.getId()));
+
+        runner.cancel(queued.getId());
+        release.countDown();
+        assertEquals(JobStatus.CANCELLED, queued.getStatus());
+    }
+
+    @Test
+    void discardsJobsCancelledWhileQueued() throws Exception {
+        runner.shutdown();
+        List<Job> discarded = new CopyOnWriteArrayList<>();
+        runner = new JobRunner<>("test-job", 1, 2, Duration.ofHours(1), discarded::add);
+
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        runner.submit(new TestJob(), j -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var cancelled = runner.submit(new TestJob(), j -> fail("A cancelled job must not run"));
+        var pending = runner.submit(new TestJob(), j -> {});
+
+        runner.cancel(cancelled.getId());
+        release.countDown();
+        awaitFinished(pending);
+        for (int i = 0; i < 500 && !discarded.contains(cancelled); i++) Thread.sleep(10);
+
+        assertEquals(List.of(cancelled), discarded);
+    }
+
+    @Test
+    void discardsJobsStillQueuedAtShutdown() throws Exception {
+        runner.shutdown();
+        List<Job> discarded = new CopyOnWriteArrayList<>();
+        runner = new JobRunner<>("test-job", 1, 1, Duration.ofHours(1), discarded::add);
+
+        var started = new CountDownLatch(1);
+        runner.submit(new TestJob(), j -> {
+            started.countDown();
+            while (true) j.checkCancelled();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = runner.submit(new TestJob(), j -> {});
+
+        runner.shutdown();
+
+        assertTrue(discarded.contains(queued));
+    }
+
+    private static void awaitFinished(Job job) throws InterruptedException {
+        for (int i = 0; i < 500 && !job.getStatus().isFinished(); i++) Thread.sleep(10);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestJob extends Job {}
+}
@@ -1,5 +1,6 @@
 package br.com.erudio.services;
 
+import br.com.erudio.cache.EntityCaches;
 import br.com.erudio.data.dto.v1.BookDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.model.Book;
@@ -13,7 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,9 +37,13 @@ class BookServicesTest {
     @Mock
     BookRepository repository;
 
+    @Spy
+    EntityCaches caches;
+
     @BeforeEach
     void setUp() {
         input = new MockBook();
+        caches = new EntityCaches(new ConcurrentMapCacheManager());
         MockitoAnnotations.openMocks(this);
     }
 
@@ -82,6 +89,36 @@ class BookServicesTest {
         assertNotNull(result.getLaunchDate());
     }
 
+    @Test
+    void findByIdIsCached() {
+        Book book = input.mockEntity(1);
+        book.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+
+        var first = service.findById(1L);
+        var second = service.findById(1L);
+
+        verify(repository, times(1)).findById(1L);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(first.getLinks().toList().size(), second.getLinks().toList().size());
+    }
+
+    @Test
+    void updateEvictsCachedEntry() {
+        Book book = input.mockEntity(1);
+        book.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        when(repository.save(book)).thenReturn(book);
+
+        service.findById(1L);
+        service.update(input.mockDTO(1));
+        service.findById(1L);
+
+        verify(repository, times(3)).findById(1L);
+        verify(caches, times(1)).evictAfterCommit(anyString(), eq(1L));
+    }
+
     @Test
     void create() {
         Book book = input.mockEntity(1);
@@ -0,0 +1,97 @@
+package br.com.erudio.services;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exception.FileNotFoundException;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repository.StoredFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContentAddressedStorageTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, StoredFile> index = new HashMap<>();
+    private ContentAddressedStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        var repository = mock(StoredFileRepository.class);
+        when(repository.save(any(StoredFile.class))).thenAnswer(invocation -> {
+            StoredFile file = invocation.getArgument(0);
+            index.put(file.getName(), file);
+            return file;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(index.get(invocation.<String>getArgument(0))));
+        when(repository.countBySha256(anyString())).thenAnswer(invocation -> index.values().stream()
+                .filter(file -> file.getSha256().equals(invocation.getArgument(0))).count());
+
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        storage = new ContentAddressedStorage(config, repository);
+    }
+
+    @Test
+    void storesContentUnderShardedHashPath() throws Exception {
+        var stored = store("people.csv", "first_name\nAyrton\n");
+
+        Path blob = storage.load("people.csv");
+        assertEquals(64, stored.getSha256().length());
+        assertEquals(18L, stored.getSize());
+        assertEquals(dir.resolve("objects").resolve(stored.getSha256().substring(0, 2))
+                .resolve(stored.getSha256().substring(2, 4)).resolve(stored.getSha256()), blob);
+        assertEquals("first_name\nAyrton\n", Files.readString(blob));
+    }
+
+    @Test
+    void duplicateContentIsStoredOnce() throws Exception {
+        var first = store("people.csv", "first_name\nAyrton\n");
+        var second = store("people-copy.csv", "first_name\nAyrton\n");
+
+        assertEquals(first.getSha256(), second.getSha256());
+        assertEquals(storage.load("people.csv"), storage.load("people-copy.csv"));
+        assertEquals(1, blobs());
+        assertEquals(0, Files.list(dir.resolve("tmp")).count());
+    }
+
+    @Test
+    void replacingTheOnlyNameDeletesTheOldContent() throws Exception {
+        var first = store("people.csv", "first_name\nAyrton\n");
+        store("people.csv", "first_name\nAlain\n");
+
+        assertEquals("first_name\nAlain\n", Files.readString(storage.load("people.csv")));
+        assertEquals(1, blobs());
+        assertNotEquals(first.getSha256(), index.get("people.csv").getSha256());
+    }
+
+    @Test
+    void unknownNameIsNotFound() {
+        assertThrows(FileNotFoundException.class, () -> storage.load("missing.csv"));
+    }
+
+    private StoredFile store(String name, String content) throws Exception {
+        return storage.store(name, "text/csv", out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private long blobs() throws Exception {
+        try (Stream<Path> files = Files.walk(dir.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package br.com.erudio.services;
+
+import br.com.erudio.cache.HotFileCache;
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.config.HotFileCacheConfig;
+import br.com.erudio.exception.FileNotFoundException;
+import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repository.StoredFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, StoredFile> index = new HashMap<>();
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        var repository = mock(StoredFileRepository.class);
+        when(repository.save(any(StoredFile.class))).thenAnswer(invocation -> {
+            StoredFile file = invocation.getArgument(0);
+            index.put(file.getName(), file);
+            return file;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(index.get(invocation.<String>getArgument(0))));
+
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setStorageMode(FileStorageConfig.StorageMode.PLAIN);
+        service = new FileStorageService(config);
+        ReflectionTestUtils.setField(service, "storedFiles", repository);
+        ReflectionTestUtils.setField(service, "hotFiles", new HotFileCache(new HotFileCacheConfig(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void storesUnderShardedDirectoriesAndIndexesTheFile() throws Exception {
+        service.storeFile("people.csv", out -> out.write("first_name\nAyrton\n".getBytes(StandardCharsets.UTF_8)));
+
+        Path file = service.loadFilePath("people.csv");
+        Path shard = dir.resolve("files").relativize(file.getParent());
+        assertEquals(2, shard.getNameCount());
+        assertEquals(2, shard.getName(0).toString().length());
+        assertEquals("first_name\nAyrton\n", Files.readString(file));
+
+        StoredFile stored = index.get("people.csv");
+        assertEquals(18L, stored.getSize());
+        assertEquals(64, stored.getSha256().length());
+        assertEquals("text/csv", stored.getContentType());
+        assertNotNull(stored.getStoredAt());
+    }
+
+    @Test
+    void replacingAFileKeepsOnlyTheLastContent() throws Exception {
+        service.storeFile("people.csv", out -> out.write("first_name\nAyrton\n".getBytes(StandardCharsets.UTF_8)));
+        service.storeFile("people.csv", out -> out.write("first_name\nAlain\n".getBytes(StandardCharsets.UTF_8)));
+
+        Path file = service.loadFilePath("people.csv");
+        assertEquals("first_name\nAlain\n", Files.readString(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void failedWriteLeavesNothingBehind() throws Exception {
+        assertThrows(RuntimeException.class, () -> service.storeFile("people.csv", out -> {
+            out.write("first_name\n".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("client went away");
+        }));
+
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath("people.csv"));
+        assertTrue(index.isEmpty());
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void storingAFileReplacesItsCachedCopy() throws Exception {
+        service.storeFile("logo.svg", out -> out.write("<svg/>".getBytes(StandardCharsets.UTF_8)));
+        var cached = service.loadDownload("logo.svg").hotFile();
+        assertSame(cached, service.loadDownload("logo.svg").hotFile());
+
+        service.storeFile("logo.svg", out -> out.write("<svg></svg>".getBytes(StandardCharsets.UTF_8)));
+
+        var reloaded = service.loadDownload("logo.svg").hotFile();
+        assertEquals("<svg></svg>", new String(reloaded.content(), StandardCharsets.UTF_8));
+        assertNotEquals(cached.eTag(), reloaded.eTag());
+    }
+
+    @Test
+    void largerFilesAreDownloadedFromTheResolvedPath() throws Exception {
+        service.storeFile("people.csv", out -> out.write(new byte[300 * 1024]));
+
+        var download = service.loadDownload("people.csv");
+
+        assertNull(download.hotFile());
+        assertEquals(service.loadFilePath("people.csv"), download.file());
+        assertEquals(MediaType.valueOf("text/csv"), download.contentType());
+    }
+
+    @Test
+    void downloadsKeepTheIndexedContentType() throws Exception {
+        service.storeFile("logo.img", "image/svg+xml", out -> out.write("<svg/>".getBytes(StandardCharsets.UTF_8)));
+        service.storeFile("people.dat", "text/csv", out -> out.write(new byte[300 * 1024]));
+        Files.write(dir.resolve("legacy.dat"), new byte[300 * 1024]);
+
+        assertEquals(MediaType.valueOf("image/svg+xml"), service.loadDownload("logo.img").hotFile().contentType());
+        assertEquals(MediaType.valueOf("text/csv"), service.loadDownload("people.dat").contentType());
+        // No row, the name is all there is to go by
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, service.loadDownload("legacy.dat").contentType());
+    }
+
+    @Test
+    void deleteRemovesTheFileAndItsCachedCopy() throws Exception {
+        service.storeFile("people_export.csv", out -> out.write("first_name\n".getBytes(StandardCharsets.UTF_8)));
+        assertNotNull(service.loadDownload("people_export.csv").hotFile());
+
+        service.deleteFile("people_export.csv");
+        service.deleteFile("people_export.csv");
+
+        assertThrows(FileNotFoundException.class, () -> service.loadDownload("people_export.csv"));
+    }
+
+    @Test
+    void findsFilesStoredBeforeSharding() throws Exception {
+        Path legacy = Files.writeString(dir.resolve("legacy.csv"), "first_name\n");
+
+        assertEquals(legacy, service.loadFilePath("legacy.csv"));
+    }
+
+    @Test
+    void contentStoreFindsFilesStoredBeforeIt() throws Exception {
+        service.storeFile("people.csv", out -> out.write("first_name\n".getBytes(StandardCharsets.UTF_8)));
+        Path plain = service.loadFilePath("people.csv");
+        Path legacy = Files.writeString(dir.resolve("legacy.csv"), "first_name\n");
+
+        var config = new FileStorageConfig();
+        config.setUploadDir(dir.toString());
+        config.setStorageMode(FileStorageConfig.StorageMode.CONTENT_ADDRESSED);
+        var repository = mock(StoredFileRepository.class);
+        when(repository.findById("people.csv")).thenReturn(Optional.of(index.get("people.csv")));
+        var contentAddressed = new FileStorageService(config);
+        ReflectionTestUtils.setField(contentAddressed, "contentStorage", new ContentAddressedStorage(config, repository));
+        ReflectionTestUtils.setField(contentAddressed, "storedFiles", repository);
+
+        assertEquals(plain, contentAddressed.loadFilePath("people.csv"));
+        assertEquals(legacy, contentAddressed.loadFilePath("legacy.csv"));
+        assertThrows(FileNotFoundException.class, () -> contentAddressed.loadFilePath("missing.csv"));
+    }
+
+    @Test
+    void migratesFilesStoredBeforeShardingOnce() throws Exception {
+        Path legacy = Files.writeString(dir.resolve("legacy.csv"), "first_name\nAyrton\n");
+
+        service.migrateLegacyFiles();
+
+        Path migrated = service.loadFilePath("legacy.csv");
+        assertNotEquals(legacy, migrated);
+        assertFalse(Files.exists(legacy));
+        assertEquals("first_name\nAyrton\n", Files.readString(migrated));
+        StoredFile stored = index.get("legacy.csv");
+        assertEquals(18L, stored.getSize());
+        assertEquals(64, stored.getSha256().length());
+        assertEquals("text/csv", stored.getContentType());
+
+        // Marked as done, the directory is not looked at again
+        Path late = Files.writeString(dir.resolve("late.csv"), "first_name\n");
+        service.migrateLegacyFiles();
+        assertEquals(late, service.loadFilePath("late.csv"));
+        assertNull(index.get("late.csv"));
+    }
+
+    @Test
+    void migrationDropsLegacyFilesShadowedByANewerCopy() throws Exception {
+        service.storeFile("people.csv", out -> out.write("first_name\nAlain\n".getBytes(StandardCharsets.UTF_8)));
+        Path legacy = Files.writeString(dir.resolve("people.csv"), "first_name\nAyrton\n");
+
+        service.migrateLegacyFiles();
+
+        assertFalse(Files.exists(legacy));
+        assertEquals("first_name\nAlain\n", Files.readString(service.loadFilePath("people.csv")));
+    }
+
+    @Test
+    void deleteRemovesFilesNotMigratedYet() throws Exception {
+        Files.writeString(dir.resolve("legacy.csv"), "first_name\n");
+
+        service.deleteFile("legacy.csv");
+
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath("legacy.csv"));
+    }
+
+    @Test
+    void rejectsPathsOutsideTheStorageDirectory() {
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath("../outside.csv"));
+    }
+
+    @Test
+    void rejectsPathsIntoTheStorageDirectories() throws Exception {
+        service.storeFile("people.csv", out -> out.write("first_name\n".getBytes(StandardCharsets.UTF_8)));
+        Path sharded = service.loadFilePath("people.csv");
+        Path blob = Files.createDirectories(dir.resolve("objects").resolve("ab").resolve("cd")).resolve("abcd");
+        Files.writeString(blob, "first_name\n");
+        Files.createDirectories(dir.resolve("tmp"));
+        Files.writeString(dir.resolve("tmp").resolve("upload1.part"), "first_");
+
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath("objects/ab/cd/abcd"));
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath("tmp/upload1.part"));
+        assertThrows(FileNotFoundException.class, () -> service.loadFilePath(dir.relativize(sharded).toString()));
+        assertThrows(FileStorageException.class, () -> service.storeFile("tmp/upload1.part", out -> {}));
+    }
+}
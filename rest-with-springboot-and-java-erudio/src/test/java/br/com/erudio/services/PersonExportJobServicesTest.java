@@ -0,0 +1,119 @@
+package br.com.erudio.services;
+
+import br.com.erudio.data.dto.v1.ExportJobDTO;
+import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.jobs.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PersonExportJobServicesTest {
+
+    @InjectMocks
+    private PersonExportJobServices service;
+
+    @Mock
+    PersonServices personServices;
+
+    @Mock
+    FileStorageService fileStorage;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        service.workers = 1;
+        service.queueCapacity = 1;
+        service.retention = Duration.ofHours(1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.stop();
+        RequestContextHolder.resetRequestAttributes();
+        mocks.close();
+    }
+
+    @Test
+    void completedExportKeepsItsFile() throws Exception {
+        when(fileStorage.storeFile(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var job = service.create("csv", null, null);
+        var result = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.COMPLETED.name(), result.getStatus());
+        assertNotNull(result.getFileDownloadUri());
+        verify(fileStorage, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void failedExportDeletesItsFile() throws Exception {
+        when(fileStorage.storeFile(anyString(), any())).thenThrow(new FileStorageException("Disk full"));
+
+        var job = service.create("csv", null, null);
+        var result = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.FAILED.name(), result.getStatus());
+        verify(fileStorage, timeout(1000)).deleteFile(job.getFileName());
+    }
+
+    @Test
+    void cancelAfterTheFileWasStoredDeletesIt() throws Exception {
+        var stored = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(fileStorage.storeFile(anyString(), any())).thenAnswer(invocation -> {
+            stored.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+
+        var job = service.create("xlsx", null, null);
+        assertTrue(stored.await(5, TimeUnit.SECONDS));
+        service.cancel(job.getId());
+        release.countDown();
+
+        verify(fileStorage, timeout(1000)).deleteFile(job.getFileName());
+        assertEquals(JobStatus.CANCELLED.name(), service.findById(job.getId()).getStatus());
+    }
+
+    @Test
+    void purgedExportDeletesItsFile() throws Exception {
+        service.stop();
+        service.retention = Duration.ZERO;
+        service.start();
+        when(fileStorage.storeFile(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var job = service.create("csv", null, null);
+
+        // Purged by the schedule, no further job has to come in
+        verify(fileStorage, timeout(5000)).deleteFile(job.getFileName());
+    }
+
+    private ExportJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var job = service.findById(id);
+            if (JobStatus.valueOf(job.getStatus()).isFinished()) return job;
+            Thread.sleep(50);
+        }
+        fail("Job did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.erudio.services;
+
+import br.com.erudio.cache.EntityCaches;
+import br.com.erudio.config.ImportPipelineConfig;
+import br.com.erudio.data.dto.v1.ImportJobDTO;
+import br.com.erudio.data.dto.v1.ImportStageDTO;
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.file.importer.ImportMode;
+import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.file.importer.impl.CsvImporter;
+import br.com.erudio.jobs.JobStatus;
+import br.com.erudio.model.Person;
+import br.com.erudio.repository.PersonBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PersonImportJobServicesTest {
+
+    @InjectMocks
+    private PersonImportJobServices service;
+
+    @Mock
+    FileImporterFactory importer;
+
+    @Mock
+    PersonBatchWriter batchWriter;
+
+    @Spy
+    EntityCaches caches;
+
+    @Spy
+    ImportPipelineConfig pipelineConfig;
+
+    @Spy
+    MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        caches = new EntityCaches(new ConcurrentMapCacheManager());
+        pipelineConfig = new ImportPipelineConfig();
+        pipelineConfig.setMappers(2);
+        pipelineConfig.setWriters(1);
+        pipelineConfig.setHandoffSize(2);
+        registry = new SimpleMeterRegistry();
+        MockitoAnnotations.openMocks(this);
+        service.importChunkSize = 2;
+        service.workers = 1;
+        service.queueCapacity = 1;
+        service.retention = Duration.ofHours(1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void importsValidRowsAndCountsRejectedOnes() throws Exception {
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 5; i++) {
+            csv.append("First Name Test").append(i).append(",Last Name Test").append(i)
+                    .append(",Address Test").append(i).append(",Male\n");
+        }
+        csv.append("First Name Test6,,Address Test6,Male\n");
+        when(importer.getImporter("people.csv")).thenReturn(new CsvImporter());
+        when(batchWriter.persistAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var job = service.create(new MockMultipartFile("file", "people.csv", "text/csv", csv.toString().getBytes()), ImportMode.INSERT);
+        assertEquals("people.csv", job.getFileName());
+
+        var result = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.COMPLETED.name(), result.getStatus());
+        assertEquals(6L, result.getProcessedRows());
+        assertEquals(5L, result.getImportedRows());
+        assertEquals(1L, result.getErrorRows());
+        assertNotNull(result.getFinishedAt());
+        verify(batchWriter, times(3)).persistAll(anyList());
+
+        assertEquals(List.of("parse", "map", "write"), result.getStages().stream().map(ImportStageDTO::getName).toList());
+        assertEquals(6L, result.getStages().get(0).getRows());
+        assertEquals(6L, result.getStages().get(1).getRows());
+        assertEquals(5L, result.getStages().get(2).getRows());
+    }
+
+    @Test
+    void writerFailureFailsTheJob() throws Exception {
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 50; i++) {
+            csv.append("First Name Test").append(i).append(",Last Name Test").append(i)
+                    .append(",Address Test").append(i).append(",Male\n");
+        }
+        when(importer.getImporter("people.csv")).thenReturn(new CsvImporter());
+        when(batchWriter.persistAll(anyList())).thenThrow(new IllegalStateException("Connection refused"));
+
+        var job = service.create(new MockMultipartFile("file", "people.csv", "text/csv", csv.toString().getBytes()), ImportMode.INSERT);
+        var result = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.FAILED.name(), result.getStatus());
+        assertEquals("Connection refused", result.getError());
+        assertEquals(0L, result.getImportedRows());
+    }
+
+    @Test
+    void upsertWritesEachKeyFromOneWriterInFileOrder() throws Exception {
+        pipelineConfig.setWriters(2);
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 60; i++) {
+            csv.append("First Name Test").append(i % 3).append(",Last Name Test").append(i)
+                    .append(",Address Test").append(i).append(",Male\n");
+        }
+        when(importer.getImporter("people.csv")).thenReturn(new CsvImporter());
+        when(batchWriter.naturalKeyOf(any(Person.class))).thenAnswer(invocation ->
+                List.of(invocation.<Person>getArgument(0).getFirstName()));
+
+        Map<String, List<String>> threads = new ConcurrentHashMap<>();
+        Map<String, List<Integer>> rows = new ConcurrentHashMap<>();
+        var ids = new AtomicLong();
+        when(batchWriter.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Person> chunk = invocation.getArgument(0);
+            for (Person person : chunk) {
+                person.setId(ids.incrementAndGet());
+                threads.computeIfAbsent(person.getFirstName(), key -> new ArrayList<>()).add(Thread.currentThread().getName());
+                rows.computeIfAbsent(person.getFirstName(), key -> new ArrayList<>())
+                        .add(Integer.parseInt(person.getLastName().substring("Last Name Test".length())));
+            }
+            return new PersonBatchWriter.UpsertResult(List.of(), chunk);
+        });
+
+        var job = service.create(new MockMultipartFile("file", "people.csv", "text/csv", csv.toString().getBytes()), ImportMode.UPSERT);
+        var result = awaitFinished(job.getId());
+
+        assertEquals(JobStatus.COMPLETED.name(), result.getStatus());
+        assertEquals(60L, result.getUpdatedRows());
+        assertEquals(3, rows.size());
+        threads.values().forEach(names -> assertEquals(1, names.stream().distinct().count()));
+        rows.values().forEach(order -> assertEquals(order.stream().sorted().toList(), order));
+    }
+
+    @Test
+    void rejectsEmptyFile() {
+        var empty = new MockMultipartFile("file", "people.csv", "text/csv", new byte[0]);
+
+        assertThrows(BadRequestException.class, () -> service.create(empty, ImportMode.INSERT));
+    }
+
+    private ImportJobDTO awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var job = service.findById(id);
+            if (JobStatus.valueOf(job.getStatus()).isFinished()) return job;
+            Thread.sleep(50);
+        }
+        fail("Job did not finish");
+        return null;
+    }
+}
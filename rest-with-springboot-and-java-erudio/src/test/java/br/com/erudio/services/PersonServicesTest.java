@@ -1,24 +1,57 @@
 package br.com.erudio.services;
 
+import br.com.erudio.cache.EntityCaches;
 import br.com.erudio.data.dto.v1.PersonDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.file.exporter.factory.FileExporterFactory;
+import br.com.erudio.file.exporter.impl.CsvExporter;
+import br.com.erudio.file.exporter.impl.XlsxExporter;
+import br.com.erudio.file.importer.ImportMode;
+import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.file.importer.impl.CsvImporter;
 import br.com.erudio.model.Person;
+import br.com.erudio.pagination.KeysetCursor;
+import br.com.erudio.pagination.KeysetPage;
+import br.com.erudio.repository.PersonBatchWriter;
 import br.com.erudio.repository.PersonRepository;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
 
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,9 +68,25 @@ class PersonServicesTest {
     @Mock
     PersonRepository repository;
 
+    @Spy
+    EntityCaches caches;
+
+    @Mock
+    FileImporterFactory importer;
+
+    @Mock
+    PersonBatchWriter batchWriter;
+
+    @Mock
+    FileExporterFactory exporter;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         input = new MockPerson();
+        caches = new EntityCaches(new ConcurrentMapCacheManager());
         MockitoAnnotations.openMocks(this);
     }
 
@@ -83,6 +132,36 @@ class PersonServicesTest {
         assertEquals("Female", result.getGender());
     }
 
+    @Test
+    void findByIdIsCached() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(person));
+
+        var first = service.findById(1L);
+        var second = service.findById(1L);
+
+        verify(repository, times(1)).findById(1L);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(first.getLinks().toList().size(), second.getLinks().toList().size());
+    }
+
+    @Test
+    void updateEvictsCachedEntry() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(person));
+        when(repository.save(person)).thenReturn(person);
+
+        service.findById(1L);
+        service.update(input.mockDTO(1));
+        service.findById(1L);
+
+        verify(repository, times(3)).findById(1L);
+        verify(caches, times(1)).evictAfterCommit(anyString(), eq(1L));
+    }
+
     @Test
     void create() {
         Person person = input.mockEntity(1);
@@ -215,6 +294,224 @@ class PersonServicesTest {
         verifyNoMoreInteractions(repository);
     }
 
+    @Test
+    void massImport() throws Exception {
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 5; i++) {
+            csv.append("First Name Test").append(i).append(",Last Name Test").append(i)
+                    .append(",Address Test").append(i).append(",Male\n");
+        }
+        when(importer.getImporter("people.csv")).thenReturn(new CsvImporter());
+        when(batchWriter.persistAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        service.importChunkSize = 2;
+
+        var result = service.massImport(new MockMultipartFile("file", "people.csv", "text/csv", csv.toString().getBytes()));
+
+        assertEquals("people.csv", result.getFileName());
+        assertEquals(5L, result.getImportedRows());
+        assertEquals(3, result.getChunks());
+        verify(batchWriter, times(3)).persistAll(anyList());
+    }
+
+    @Test
+    void massImportUpsert() throws Exception {
+        var csv = new StringBuilder("first_name,last_name,address,gender\n");
+        for (int i = 1; i <= 4; i++) {
+            csv.append("First Name Test").append(i).append(",Last Name Test").append(i)
+                    .append(",Address Test").append(i).append(",Male\n");
+        }
+        when(importer.getImporter("people.csv")).thenReturn(new CsvImporter());
+        when(batchWriter.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Person> chunk = invocation.getArgument(0);
+            // The first row of every chunk already exists
+            return new PersonBatchWriter.UpsertResult(chunk.subList(1, chunk.size()), chunk.subList(0, 1));
+        });
+        service.importChunkSize = 2;
+
+        var result = service.massImport(new MockMultipartFile("file", "people.csv", "text/csv", csv.toString().getBytes()), ImportMode.UPSERT);
+
+        assertEquals(4L, result.getImportedRows());
+        assertEquals(2L, result.getUpdatedRows());
+        verify(batchWriter, times(2)).upsertAll(anyList());
+        verify(batchWriter, never()).persistAll(anyList());
+    }
+
+    @Test
+    void exportAllStreamsEveryRowWhenNoNameIsGiven() throws Exception {
+        when(exporter.getExporter("text/csv")).thenReturn(new CsvExporter());
+        when(repository.streamPeople(any(Pageable.class))).thenReturn(input.mockDTOList().subList(0, 3).stream());
+
+        var out = new ByteArrayOutputStream();
+        service.exportAll(null, Sort.by(Sort.Direction.DESC, "firstName"), "text/csv").writeTo(out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+        assertEquals("ID,First Name,Last Name,Address,Gender,Enabled", lines.get(0));
+        assertTrue(lines.get(1).contains("First Name Test0"));
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).streamPeople(pageable.capture());
+        assertTrue(pageable.getValue().isUnpaged());
+        assertEquals(Sort.by(Sort.Direction.DESC, "firstName"), pageable.getValue().getSort());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportAllFiltersByName() throws Exception {
+        when(exporter.getExporter("text/csv")).thenReturn(new CsvExporter());
+        when(repository.streamPeopleByName(eq("\"Ayr\""), any(Pageable.class))).thenReturn(input.mockDTOList().subList(0, 1).stream());
+        when(repository.streamPeopleByNameScan(eq("A"), any(Pageable.class))).thenReturn(Stream.empty());
+
+        var out = new ByteArrayOutputStream();
+        service.exportAll("+Ayr", Sort.by("firstName"), "text/csv").writeTo(out);
+        service.exportAll("A", Sort.by("firstName"), "text/csv").writeTo(new ByteArrayOutputStream());
+
+        assertEquals(2, out.toString(StandardCharsets.UTF_8).lines().count());
+        verify(repository, never()).streamPeople(any(Pageable.class));
+    }
+
+    @Test
+    void exportAllToAFileReportsEveryRow() throws Exception {
+        when(exporter.getExporter("text/csv")).thenReturn(new CsvExporter());
+        when(repository.streamPeople(any(Pageable.class))).thenReturn(input.mockDTOList().subList(0, 5).stream());
+
+        var exported = new AtomicInteger();
+        service.exportAll(null, Sort.by("firstName"), "text/csv", new ByteArrayOutputStream(), row -> exported.incrementAndGet());
+
+        assertEquals(5, exported.get());
+    }
+
+    @Test
+    void exportAllXlsxSplitsSheetsAtTheRowLimit() throws Exception {
+        var xlsxExporter = new XlsxExporter();
+        ReflectionTestUtils.setField(xlsxExporter, "maxRowsPerSheet", 3);
+        when(exporter.getExporter(MediaTypes.APPLICATION_XLSX_VALUE)).thenReturn(xlsxExporter);
+        when(repository.streamPeople(any(Pageable.class))).thenReturn(input.mockDTOList().subList(0, 5).stream());
+
+        var out = new ByteArrayOutputStream();
+        service.exportAll(null, Sort.by("firstName"), MediaTypes.APPLICATION_XLSX_VALUE).writeTo(out);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(3, workbook.getNumberOfSheets());
+        }
+    }
+
+    @Test
+    void findAllByCursor() {
+        List<PersonDTO> list = input.mockDTOList().subList(0, 5);
+        when(repository.findFirstPeople(any(Pageable.class))).thenReturn(list);
+
+        var result = service.findAllByCursor(null, 4, Sort.Direction.ASC);
+
+        assertEquals(4, result.getContent().size());
+
+        var next = result.getLink(IanaLinkRelations.NEXT);
+        assertTrue(next.isPresent());
+
+        var after = UriComponentsBuilder.fromUriString(next.get().getHref()).build().getQueryParams().getFirst("after");
+        var cursor = KeysetCursor.decode(after);
+        assertEquals(3L, cursor.id());
+        assertEquals("First Name Test3", cursor.key());
+    }
+
+    @Test
+    void findAllByCursorLastPage() {
+        List<PersonDTO> list = input.mockDTOList().subList(4, 6);
+        String after = new KeysetCursor("First Name Test3", 3L).encode();
+        when(repository.findPeopleAfterAscending(eq("First Name Test3"), eq(3L), any(Pageable.class))).thenReturn(list);
+
+        var result = service.findAllByCursor(after, 4, Sort.Direction.ASC);
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.getLink(IanaLinkRelations.NEXT).isPresent());
+        assertTrue(result.getLink(IanaLinkRelations.SELF).isPresent());
+    }
+
+    @Test
+    void findByNameStripsFullTextOperators() {
+        var pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(repository.findPeopleByName(anyString(), any(Pageable.class))).thenReturn(Page.empty(pageable));
+        service.assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        service.findByName("+Ayr*ton-", pageable);
+        service.findByName("\"ayr\" @3", pageable);
+
+        verify(repository).findPeopleByName(eq("\"Ayr ton\""), eq(pageable));
+        verify(repository).findPeopleByName(eq("\"ayr   3\""), eq(pageable));
+        verify(repository, never()).findPeopleByNameScan(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void findByNameScansTermsShorterThanAnNgram() {
+        var pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(repository.findPeopleByNameScan(anyString(), any(Pageable.class))).thenReturn(Page.empty(pageable));
+        service.assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        service.findByName("A", pageable);
+        // Only an operator and one letter remain a single character term
+        service.findByName("*a*", pageable);
+        service.findByName("", pageable);
+
+        verify(repository).findPeopleByNameScan(eq("A"), eq(pageable));
+        verify(repository).findPeopleByNameScan(eq("a"), eq(pageable));
+        verify(repository).findPeopleByNameScan(eq(""), eq(pageable));
+        verify(repository, never()).findPeopleByName(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void findByNameSliceScansShortTerms() {
+        var pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(repository.findPeopleByNameScanSlice(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        service.slicedAssembler = new SlicedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        service.findByNameSlice("~b", pageable);
+
+        verify(repository).findPeopleByNameScanSlice(eq("b"), eq(pageable));
+        verify(repository, never()).findPeopleByNameSlice(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void findByNameSliceLinksStayOnTheNameSlice() {
+        var pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "firstName"));
+        when(repository.findPeopleByNameSlice(eq("\"Ayr\""), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(input.mockDTOList().subList(0, 4), pageable, true));
+        service.slicedAssembler = new SlicedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        var result = service.findByNameSlice("Ayr", pageable);
+
+        var next = result.getLink(IanaLinkRelations.NEXT).orElseThrow().getHref();
+        assertTrue(next.contains("/api/person/v1/findPeopleByName/Ayr/slice"), next);
+        assertTrue(next.contains("direction=desc"), next);
+        assertTrue(next.contains("page=1"), next);
+    }
+
+    @Test
+    void findAllSliceLinksKeepDirectionAndEstimate() {
+        var pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "firstName"));
+        when(repository.findPeopleSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(input.mockDTOList().subList(0, 4), pageable, true));
+        service.slicedAssembler = new SlicedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        var result = service.findAllSlice(pageable, true);
+
+        var next = result.getLink(IanaLinkRelations.NEXT).orElseThrow().getHref();
+        assertTrue(next.contains("/api/person/v1/slice"), next);
+        assertTrue(next.contains("direction=desc"), next);
+        assertTrue(next.contains("estimateTotal=true"), next);
+    }
+
+    @Test
+    void findAllByCursorClampsSize() {
+        when(repository.findFirstPeople(any(Pageable.class))).thenReturn(input.mockDTOList().subList(0, 5));
+
+        service.findAllByCursor(null, Integer.MAX_VALUE, Sort.Direction.ASC);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findFirstPeople(pageable.capture());
+        assertEquals(KeysetPage.MAX_SIZE + 1, pageable.getValue().getPageSize());
+    }
+
     @Test
     @Disabled("REASON: Still Under Development")
     void findAll() {
@@ -333,4 +630,4 @@ class PersonServicesTest {
         assertEquals("Last Name Test7", personSeven.getLastName());
         assertEquals("Female", personSeven.getGender());
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.List;
 
+import br.com.erudio.data.dto.v1.BookDTO;
 import br.com.erudio.data.dto.v1.PersonDTO;
+import br.com.erudio.model.Book;
+import br.com.erudio.unittests.mapper.mocks.MockBook;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +16,12 @@ import br.com.erudio.model.Person;
 
 public class ObjectMapperTests {
     MockPerson inputObject;
+    MockBook inputBook;
 
     @BeforeEach
     public void setUp() {
         inputObject = new MockPerson();
+        inputBook = new MockBook();
     }
 
     @Test
@@ -94,4 +99,26 @@ public class ObjectMapperTests {
         assertEquals("Address Test12", outputTwelve.getAddress());
         assertEquals("Male", outputTwelve.getGender());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseBookEntityToDTOTest() {
+        Book input = inputBook.mockEntity(3);
+        BookDTO output = parseObjects(input, BookDTO.class);
+        assertEquals(3L, output.getId());
+        assertEquals("Some Author3", output.getAuthor());
+        assertEquals("Some Title3", output.getTitle());
+        assertEquals(25D, output.getPrice());
+        assertEquals(input.getLaunchDate(), output.getLaunchDate());
+    }
+
+    @Test
+    public void parseBookDTOToEntityTest() {
+        BookDTO input = inputBook.mockDTO(5);
+        Book output = parseObjects(input, Book.class);
+        assertEquals(5L, output.getId());
+        assertEquals("Some Author5", output.getAuthor());
+        assertEquals("Some Title5", output.getTitle());
+        assertEquals(25D, output.getPrice());
+        assertEquals(input.getLaunchDate(), output.getLaunchDate());
+    }
+}